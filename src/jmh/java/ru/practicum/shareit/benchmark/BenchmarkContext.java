@@ -0,0 +1,67 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+
+import java.util.stream.Stream;
+
+/**
+ * Контекст приложения на встроенной H2, заполненной тестовыми данными.
+ * Объём данных задаётся параметрами JMH, например {@code -p bookings=1000000}.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkContext {
+
+    @Param("1000")
+    public int users;
+
+    @Param("2000")
+    public int items;
+
+    @Param("10000")
+    public int bookings;
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = startApplication();
+        new BenchmarkDataSeeder(getBean(JdbcTemplate.class)).seed(users, items, bookings);
+    }
+
+    /**
+     * Запускает приложение с тестовым профилем без веб-сервера и с приглушёнными логами.
+     * Дополнительные аргументы переопределяют настройки, например {@code --spring.jpa.properties...}.
+     */
+    public static ConfigurableApplicationContext startApplication(String... extraArgs) {
+        String[] args = Stream.concat(Stream.of("--logging.level.root=WARN",
+                        "--logging.level.ru.practicum.shareit=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN"),
+                Stream.of(extraArgs)).toArray(String[]::new);
+        return new SpringApplicationBuilder(ShareItApp.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .run(args);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
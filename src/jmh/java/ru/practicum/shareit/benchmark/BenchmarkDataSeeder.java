@@ -0,0 +1,121 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.persistence.PooledSequenceGenerator;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Заполняет базу пакетными JDBC-вставками с явными идентификаторами: пользователи 1..users,
+ * вещь i принадлежит пользователю ((i - 1) % users) + 1, так что у пользователя 1 всегда есть вещи.
+ */
+public class BenchmarkDataSeeder {
+
+    public static final int COMMENTS_PER_ITEM = 2;
+
+    private static final int BATCH_SIZE = 10_000;
+    private static final BookingStatus[] STATUSES = {
+            BookingStatus.WAITING, BookingStatus.APPROVED, BookingStatus.APPROVED, BookingStatus.REJECTED
+    };
+
+    /**
+     * Тот же пересчёт, что в миграции V8: вставки идут в обход сервисов, которые ведут item_stats.
+     */
+    private static final String ITEM_STATS_BACKFILL = "INSERT INTO item_stats (item_id, comment_count, last_comment_at, completed_bookings) " +
+            "SELECT i.id, " +
+            "(SELECT COUNT(*) FROM comments c WHERE c.item_id = i.id), " +
+            "(SELECT MAX(c.created) FROM comments c WHERE c.item_id = i.id), " +
+            "(SELECT COUNT(*) FROM bookings b WHERE b.item_id = i.id AND b.status = 'APPROVED' AND b.end_date <= LOCALTIMESTAMP) " +
+            "FROM items i";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Random random = new Random(42);
+
+    public BenchmarkDataSeeder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void seed(int users, int items, int bookings) {
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (long id = 1; id <= users; id++) {
+            rows.add(new Object[]{id, "user-" + id, "user-" + id + "@shareit.ru"});
+            rows = flush("INSERT INTO users (id, name, email) VALUES (?, ?, ?)", rows);
+        }
+        flushAll("INSERT INTO users (id, name, email) VALUES (?, ?, ?)", rows);
+
+        rows = new ArrayList<>(BATCH_SIZE);
+        for (long id = 1; id <= items; id++) {
+            rows.add(new Object[]{id, "item-" + id, "description of item " + id, true, ownerOf(id, users)});
+            rows = flush("INSERT INTO items (id, name, description, is_available, owner_id) VALUES (?, ?, ?, ?, ?)", rows);
+        }
+        flushAll("INSERT INTO items (id, name, description, is_available, owner_id) VALUES (?, ?, ?, ?, ?)", rows);
+
+        String bookingSql = "INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, owner_id, status, version) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, 0)";
+        rows = new ArrayList<>(BATCH_SIZE);
+        for (long id = 1; id <= bookings; id++) {
+            long itemId = 1 + random.nextInt(items);
+            long ownerId = ownerOf(itemId, users);
+            long bookerId = 1 + (ownerId + random.nextInt(Math.max(users - 1, 1))) % users;
+            LocalDateTime start = now.plusHours(random.nextInt(24 * 365) - 24 * 180);
+            rows.add(new Object[]{id, Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(1 + random.nextInt(72))),
+                    itemId, bookerId, ownerId, STATUSES[random.nextInt(STATUSES.length)].name()});
+            rows = flush(bookingSql, rows);
+        }
+        flushAll(bookingSql, rows);
+
+        String commentSql = "INSERT INTO comments (id, text, item_id, author_id, created) VALUES (?, ?, ?, ?, ?)";
+        rows = new ArrayList<>(BATCH_SIZE);
+        long commentId = 1;
+        for (long itemId = 1; itemId <= items; itemId++) {
+            for (int c = 0; c < COMMENTS_PER_ITEM; c++) {
+                rows.add(new Object[]{commentId++, "comment " + c, itemId, 1 + random.nextInt(users),
+                        Timestamp.valueOf(now.minusDays(c + 1))});
+                rows = flush(commentSql, rows);
+            }
+        }
+        flushAll(commentSql, rows);
+
+        jdbcTemplate.update(ITEM_STATS_BACKFILL);
+        jdbcTemplate.update("INSERT INTO item_stats_watermark (name, processed_until) VALUES ('completed-bookings', ?)",
+                Timestamp.valueOf(now));
+
+        restartSequence("users_seq", users);
+        restartSequence("items_seq", items);
+        restartSequence("bookings_seq", bookings);
+        restartSequence("comments_seq", commentId - 1);
+    }
+
+    private static long ownerOf(long itemId, int users) {
+        return ((itemId - 1) % users) + 1;
+    }
+
+    private List<Object[]> flush(String sql, List<Object[]> rows) {
+        if (rows.size() < BATCH_SIZE) {
+            return rows;
+        }
+        flushAll(sql, rows);
+        return new ArrayList<>(BATCH_SIZE);
+    }
+
+    private void flushAll(String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, rows);
+        }
+    }
+
+    /**
+     * Оптимизатор pooled считает значение последовательности верхней границей блока идентификаторов.
+     */
+    private void restartSequence(String sequence, long lastId) {
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH "
+                + (lastId + PooledSequenceGenerator.DEFAULT_ALLOCATION_SIZE));
+    }
+}
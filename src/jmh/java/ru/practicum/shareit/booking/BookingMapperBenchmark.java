@@ -0,0 +1,42 @@
+package ru.practicum.shareit.booking;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import ru.practicum.shareit.benchmark.BenchmarkContext;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookingMapperBenchmark {
+
+    private BookingMapper bookingMapper;
+    private Booking booking;
+    private User booker;
+    private Item item;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkContext context) {
+        bookingMapper = context.getBean(BookingMapper.class);
+        booking = context.getBean(BookingRepository.class).findById(1L).orElseThrow();
+        booker = context.getBean(UserRepository.class).findById(booking.getBookerId()).orElseThrow();
+        item = context.getBean(ItemRepository.class).findById(booking.getItemId()).orElseThrow();
+    }
+
+    @Benchmark
+    public BookingResponseDto toDto() {
+        return bookingMapper.toDto(booking, booker, item);
+    }
+}
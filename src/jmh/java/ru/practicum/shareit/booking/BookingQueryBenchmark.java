@@ -0,0 +1,48 @@
+package ru.practicum.shareit.booking;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import ru.practicum.shareit.benchmark.BenchmarkContext;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Запросы истории бронирований букера и владельца по всем состояниям.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookingQueryBenchmark {
+
+    private static final long USER_ID = 1L;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED", "CANCELED"})
+    public BookingState state;
+
+    private BookingService bookingService;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkContext context) {
+        bookingService = context.getBean(BookingService.class);
+    }
+
+    @Benchmark
+    public List<BookingResponseDto> bookerStateQuery() {
+        return bookingService.getUserBookings(USER_ID, BookingFilter.of(state), 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<BookingResponseDto> ownerStateQuery() {
+        return bookingService.getOwnerBookings(USER_ID, BookingFilter.of(state), 0, PAGE_SIZE);
+    }
+}
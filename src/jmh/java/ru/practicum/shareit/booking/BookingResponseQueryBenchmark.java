@@ -0,0 +1,87 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.benchmark.BenchmarkContext;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Страница бронирований владельца: прежний путь (сущности, затем findAllById пользователей и вещей
+ * и маппер) против одного запроса с проекцией в BookingResponseDto.
+ * Выделение памяти на операцию показывает профилировщик GC: {@code -prof gc}, метрика gc.alloc.rate.norm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookingResponseQueryBenchmark {
+
+    private static final long OWNER_ID = 1L;
+    private static final int PAGE_SIZE = 20;
+    private static final String ENTITY_QUERY =
+            "SELECT b FROM Booking b WHERE b.ownerId = :ownerId ORDER BY b.start DESC, b.id DESC";
+
+    private EntityManager entityManager;
+    private TransactionTemplate readOnlyTransaction;
+    private BookingRepository bookingRepository;
+    private UserRepository userRepository;
+    private ItemRepository itemRepository;
+    private BookingMapper bookingMapper;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkContext context) {
+        entityManager = context.getBean(EntityManager.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+        userRepository = context.getBean(UserRepository.class);
+        itemRepository = context.getBean(ItemRepository.class);
+        bookingMapper = context.getBean(BookingMapper.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Benchmark
+    public List<BookingResponseDto> entitiesThenMapper() {
+        return readOnlyTransaction.execute(status -> {
+            List<Booking> bookings = entityManager.createQuery(ENTITY_QUERY, Booking.class)
+                    .setParameter("ownerId", OWNER_ID)
+                    .setMaxResults(PAGE_SIZE)
+                    .getResultList();
+            Map<Long, User> users = userRepository.findAllById(bookings.stream()
+                            .map(Booking::getBookerId).collect(Collectors.toSet())).stream()
+                    .collect(Collectors.toMap(User::getId, Function.identity()));
+            Map<Long, Item> items = itemRepository.findAllById(bookings.stream()
+                            .map(Booking::getItemId).collect(Collectors.toSet())).stream()
+                    .collect(Collectors.toMap(Item::getId, Function.identity()));
+            return bookings.stream()
+                    .map(booking -> bookingMapper.toDto(booking, users.get(booking.getBookerId()),
+                            items.get(booking.getItemId())))
+                    .collect(Collectors.toList());
+        });
+    }
+
+    @Benchmark
+    public List<BookingResponseDto> projection() {
+        return readOnlyTransaction.execute(status -> bookingRepository.findResponses(
+                BookingFilter.builder().ownerId(OWNER_ID).build(), LocalDateTime.now(), null, PageRequest.of(0, PAGE_SIZE)));
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.item;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.benchmark.BenchmarkContext;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ItemMapperBenchmark {
+
+    private static final long OWNER_ID = 1L;
+    private static final int PAGE_SIZE = 20;
+
+    private ItemMapper itemMapper;
+    private List<Item> page;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkContext context) {
+        itemMapper = context.getBean(ItemMapper.class);
+        page = context.getBean(ItemRepository.class).findByOwnerId(OWNER_ID, PageRequest.of(0, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public ItemDto toDtoSingleItem() {
+        return itemMapper.toDto(page.get(0), OWNER_ID);
+    }
+
+    @Benchmark
+    public List<ItemDto> toDtoPerItem() {
+        List<ItemDto> result = new ArrayList<>(page.size());
+        for (Item item : page) {
+            result.add(itemMapper.toDto(item, OWNER_ID));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<ItemDto> toDtoBatch() {
+        return itemMapper.toDto(page, OWNER_ID);
+    }
+}
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.persistence;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.benchmark.BenchmarkContext;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность массовой вставки вещей и бронирований через репозитории.
+ * {@code idBlock=1} воспроизводит прежнее поведение (отдельный INSERT и обращение за id на каждую строку),
+ * {@code idBlock=50} — блоки идентификаторов из последовательности и JDBC-пакеты того же размера.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(IngestionBenchmark.ROWS)
+public class IngestionBenchmark {
+
+    static final int ROWS = 1_000;
+
+    @Param({"1", "50"})
+    public int idBlock;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private ItemRepository itemRepository;
+    private BookingRepository bookingRepository;
+    private Long ownerId;
+    private Long bookerId;
+    private Long itemId;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkContext.startApplication(
+                "--spring.jpa.properties.shareit.id.allocation_size=" + idBlock,
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=" + idBlock);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        itemRepository = context.getBean(ItemRepository.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ownerId = userRepository.save(User.builder().name("owner").email("owner@shareit.ru").build()).getId();
+        bookerId = userRepository.save(User.builder().name("booker").email("booker@shareit.ru").build()).getId();
+        itemId = itemRepository.save(newItem(0)).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Item> ingestItems() {
+        List<Item> items = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            items.add(newItem(i));
+        }
+        return transactionTemplate.execute(status -> itemRepository.saveAll(items));
+    }
+
+    @Benchmark
+    public List<Booking> ingestBookings() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Booking> bookings = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            bookings.add(Booking.builder()
+                    .start(start.plusHours(i))
+                    .end(start.plusHours(i + 1))
+                    .itemId(itemId)
+                    .bookerId(bookerId)
+                    .ownerId(ownerId)
+                    .status(BookingStatus.WAITING)
+                    .build());
+        }
+        return transactionTemplate.execute(status -> bookingRepository.saveAll(bookings));
+    }
+
+    private Item newItem(int i) {
+        return Item.builder()
+                .name("item-" + i)
+                .description("ingestion")
+                .available(true)
+                .ownerId(ownerId)
+                .build();
+    }
+}
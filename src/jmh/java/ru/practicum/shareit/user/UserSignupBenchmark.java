@@ -0,0 +1,74 @@
+package ru.practicum.shareit.user;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.benchmark.BenchmarkContext;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Пропускная способность параллельных регистраций. {@code emailFilter=false} воспроизводит прежнее
+ * поведение (проверочный запрос перед каждой вставкой), {@code emailFilter=true} пропускает его
+ * для новых адресов. В {@code signupWithDuplicates} каждая десятая регистрация повторяет занятый адрес.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class UserSignupBenchmark {
+
+    private static final int EXISTING_USERS = 10_000;
+
+    @Param({"false", "true"})
+    public boolean emailFilter;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkContext.startApplication("--shareit.users.email-filter.enabled=" + emailFilter);
+        userService = context.getBean(UserService.class);
+        for (int i = 0; i < EXISTING_USERS; i++) {
+            userService.createUser(new UserDto(null, "existing", "existing-" + i + "@shareit.ru"));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDto signup() {
+        return userService.createUser(new UserDto(null, "user", "signup-" + sequence.incrementAndGet() + "@shareit.ru"));
+    }
+
+    @Benchmark
+    public UserDto signupWithDuplicates() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String email = random.nextInt(10) == 0
+                ? "existing-" + random.nextInt(EXISTING_USERS) + "@shareit.ru"
+                : "mixed-" + sequence.incrementAndGet() + "@shareit.ru";
+        try {
+            return userService.createUser(new UserDto(null, "user", email));
+        } catch (ConflictException e) {
+            return null;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking;
 
 import jakarta.persistence.*;
 import lombok.*;
+import ru.practicum.shareit.persistence.PooledSequence;
 
 import java.time.LocalDateTime;
 
@@ -14,7 +15,7 @@ import java.time.LocalDateTime;
 @Builder
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence(name = "bookings_seq")
     private Long id;
 
     @Column(name = "start_date", nullable = false)
@@ -29,7 +30,14 @@ public class Booking {
     @Column(name = "booker_id", nullable = false)
     private Long bookerId;
 
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private BookingStatus status;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
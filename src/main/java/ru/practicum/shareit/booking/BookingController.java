@@ -5,13 +5,20 @@ import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateDto;
+import ru.practicum.shareit.pagination.KeysetCursor;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 @Slf4j
 @RestController
@@ -20,6 +27,7 @@ import java.util.List;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final BookingExportService bookingExportService;
 
     @PostMapping
     public ResponseEntity<BookingResponseDto> createBooking(
@@ -30,6 +38,23 @@ public class BookingController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<BookingBatchResultDto>> createBookings(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestBody List<BookingRequestDto> bookingRequestDtos) {
+        log.info("POST /bookings/batch - пакетное создание {} бронирований для пользователя {}",
+                bookingRequestDtos.size(), userId);
+        return ResponseEntity.ok(bookingService.createBookings(userId, bookingRequestDtos));
+    }
+
+    @PatchMapping("/batch")
+    public ResponseEntity<List<BookingBatchResultDto>> updateBookingStatuses(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestBody List<BookingStatusUpdateDto> updates) {
+        log.info("PATCH /bookings/batch - пакетное обновление {} статусов пользователем {}", updates.size(), userId);
+        return ResponseEntity.ok(bookingService.updateBookingStatuses(userId, updates));
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<BookingResponseDto> updateBookingStatus(
             @RequestHeader("X-Sharer-User-Id") Long userId,
@@ -54,21 +79,80 @@ public class BookingController {
     public ResponseEntity<List<BookingResponseDto>> getUserBookings(
             @RequestHeader("X-Sharer-User-Id") Long userId,
             @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(required = false) Long itemId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime rangeStart,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime rangeEnd,
+            @RequestParam(name = "status", required = false) Set<BookingStatus> statuses,
             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-            @RequestParam(defaultValue = "10") @Positive int size) {
+            @RequestParam(defaultValue = "10") @Positive int size,
+            @RequestParam(required = false) String cursor) {
         log.info("GET /bookings?state={} - получение бронирований пользователя {}", state, userId);
-        List<BookingResponseDto> response = bookingService.getUserBookings(userId, state, from, size);
-        return ResponseEntity.ok(response);
+        BookingFilter filter = toFilter(state, itemId, rangeStart, rangeEnd, statuses);
+        List<BookingResponseDto> response = cursor == null
+                ? bookingService.getUserBookings(userId, filter, from, size)
+                : bookingService.getUserBookings(userId, filter, KeysetCursor.decode(cursor), size);
+        return withNextCursor(response, size);
     }
 
     @GetMapping("/owner")
     public ResponseEntity<List<BookingResponseDto>> getOwnerBookings(
             @RequestHeader("X-Sharer-User-Id") Long userId,
             @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(required = false) Long itemId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime rangeStart,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime rangeEnd,
+            @RequestParam(name = "status", required = false) Set<BookingStatus> statuses,
             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-            @RequestParam(defaultValue = "10") @Positive int size) {
+            @RequestParam(defaultValue = "10") @Positive int size,
+            @RequestParam(required = false) String cursor) {
         log.info("GET /bookings/owner?state={} - получение бронирований владельца {}", state, userId);
-        List<BookingResponseDto> response = bookingService.getOwnerBookings(userId, state, from, size);
-        return ResponseEntity.ok(response);
+        BookingFilter filter = toFilter(state, itemId, rangeStart, rangeEnd, statuses);
+        List<BookingResponseDto> response = cursor == null
+                ? bookingService.getOwnerBookings(userId, filter, from, size)
+                : bookingService.getOwnerBookings(userId, filter, KeysetCursor.decode(cursor), size);
+        return withNextCursor(response, size);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUserBookings(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        log.info("GET /bookings/export?format={} - выгрузка бронирований пользователя {}", format, userId);
+        BookingExportFormat exportFormat = BookingExportFormat.from(format);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .body(bookingExportService.exportUserBookings(userId, exportFormat));
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportOwnerBookings(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        log.info("GET /bookings/owner/export?format={} - выгрузка бронирований владельца {}", format, userId);
+        BookingExportFormat exportFormat = BookingExportFormat.from(format);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .body(bookingExportService.exportOwnerBookings(userId, exportFormat));
+    }
+
+    private static BookingFilter toFilter(String state, Long itemId, LocalDateTime rangeStart, LocalDateTime rangeEnd,
+                                          Set<BookingStatus> statuses) {
+        return BookingFilter.builder()
+                .state(BookingState.from(state))
+                .itemId(itemId)
+                .rangeStart(rangeStart)
+                .rangeEnd(rangeEnd)
+                .statuses(statuses)
+                .build();
+    }
+
+    private ResponseEntity<List<BookingResponseDto>> withNextCursor(List<BookingResponseDto> bookings, int size) {
+        if (bookings.size() < size) {
+            return ResponseEntity.ok(bookings);
+        }
+        BookingResponseDto last = bookings.get(bookings.size() - 1);
+        return ResponseEntity.ok()
+                .header(KeysetCursor.NEXT_CURSOR_HEADER, new KeysetCursor(last.getStart(), last.getId()).encode())
+                .body(bookings);
     }
-}
+}
\ No newline at end of file
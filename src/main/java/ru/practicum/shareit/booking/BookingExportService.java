@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+public interface BookingExportService {
+
+    StreamingResponseBody exportUserBookings(Long userId, BookingExportFormat format);
+
+    StreamingResponseBody exportOwnerBookings(Long userId, BookingExportFormat format);
+}
@@ -0,0 +1,131 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingExportRow;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Выгрузка всей истории бронирований без постраничного обхода. Строки читаются из базы курсором
+ * и сразу пишутся в ответ, список в памяти не собирается. Транзакция открывается уже в потоке,
+ * который пишет тело ответа, потому что курсор живёт только внутри неё.
+ */
+@Slf4j
+@Service
+public class BookingExportServiceImpl implements BookingExportService {
+
+    private static final String CSV_HEADER = "id,start,end,status,bookerId,bookerName,itemId,itemName";
+
+    private final BookingRepository bookingRepository;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public BookingExportServiceImpl(BookingRepository bookingRepository,
+                                    UserRepository userRepository,
+                                    ObjectMapper objectMapper,
+                                    PlatformTransactionManager transactionManager) {
+        this.bookingRepository = bookingRepository;
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public StreamingResponseBody exportUserBookings(Long userId, BookingExportFormat format) {
+        log.info("Выгрузка бронирований пользователя id: {} в формате {}", userId, format);
+        validateUserExists(userId);
+        return out -> export(userId, format, out, bookingRepository::streamExportByBookerId);
+    }
+
+    @Override
+    public StreamingResponseBody exportOwnerBookings(Long userId, BookingExportFormat format) {
+        log.info("Выгрузка бронирований владельца id: {} в формате {}", userId, format);
+        validateUserExists(userId);
+        return out -> export(userId, format, out, bookingRepository::streamExportByOwnerId);
+    }
+
+    private void export(Long userId, BookingExportFormat format, OutputStream out,
+                        Function<Long, Stream<BookingExportRow>> query) {
+        long rows = transactionTemplate.execute(status -> {
+            try (Stream<BookingExportRow> stream = query.apply(userId)) {
+                return format == BookingExportFormat.CSV ? writeCsv(stream, out) : writeNdjson(stream, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        log.info("Выгружено бронирований для пользователя id: {}: {}", userId, rows);
+    }
+
+    private long writeNdjson(Stream<BookingExportRow> stream, OutputStream out) throws IOException {
+        long count = 0;
+        try (SequenceWriter writer = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(out)) {
+            for (BookingExportRow row : (Iterable<BookingExportRow>) stream::iterator) {
+                writer.write(row);
+                count++;
+            }
+        }
+        out.write('\n');
+        out.flush();
+        return count;
+    }
+
+    private long writeCsv(Stream<BookingExportRow> stream, OutputStream out) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        for (BookingExportRow row : (Iterable<BookingExportRow>) stream::iterator) {
+            writer.write(String.join(",",
+                    String.valueOf(row.id()),
+                    String.valueOf(row.start()),
+                    String.valueOf(row.end()),
+                    row.status().name(),
+                    String.valueOf(row.bookerId()),
+                    csv(row.bookerName()),
+                    String.valueOf(row.itemId()),
+                    csv(row.itemName())));
+            writer.write('\n');
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private void validateUserExists(Long userId) {
+        if (userRepository.findCachedById(userId).isEmpty()) {
+            throw new NotFoundException("Пользователь не найден с id: " + userId);
+        }
+    }
+}
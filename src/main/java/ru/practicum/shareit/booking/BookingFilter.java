@@ -0,0 +1,32 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Условия выборки списка бронирований; незаданные поля не ограничивают выборку.
+ * Ровно одно из {@code bookerId} и {@code ownerId} задаёт сервис - от него зависит,
+ * по какому индексу пойдёт запрос.
+ */
+@Getter
+@Builder(toBuilder = true)
+public class BookingFilter {
+    private final Long bookerId;
+    private final Long ownerId;
+    @Builder.Default
+    private final BookingState state = BookingState.ALL;
+    private final Long itemId;
+    /**
+     * Бронирования, пересекающиеся с интервалом [rangeStart, rangeEnd).
+     */
+    private final LocalDateTime rangeStart;
+    private final LocalDateTime rangeEnd;
+    private final Set<BookingStatus> statuses;
+
+    public static BookingFilter of(BookingState state) {
+        return builder().state(state).build();
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.pagination.KeysetCursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Списки бронирований по произвольному сочетанию условий {@link BookingFilter}.
+ */
+public interface BookingQueryRepository {
+
+    /**
+     * Страница в порядке (start DESC, id DESC): по смещению из {@code pageable} или, если задан
+     * {@code cursor}, строго после него.
+     */
+    List<BookingResponseDto> findResponses(BookingFilter filter, LocalDateTime now, KeysetCursor cursor,
+                                           Pageable pageable);
+}
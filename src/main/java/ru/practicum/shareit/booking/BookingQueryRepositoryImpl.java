@@ -0,0 +1,116 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.hibernate.Session;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaCriteriaQuery;
+import org.hibernate.query.criteria.JpaEntityJoin;
+import org.hibernate.query.criteria.JpaRoot;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Собирает запрос из условий фильтра. Форма условий повторяет прежние JPQL-запросы, чтобы планы не менялись:
+ * равенство по booker_id/owner_id с сортировкой (start DESC, id DESC) идёт по индексам
+ * idx_bookings_booker_start_id и idx_bookings_owner_start_id, единственный статус сравнивается через «=»
+ * (idx_bookings_owner_status_start), фильтр по вещи может использовать idx_bookings_item_status_start.
+ * Ответ проецируется в BookingResponseDto тем же соединением с users и items, без загрузки сущностей.
+ */
+public class BookingQueryRepositoryImpl implements BookingQueryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingResponseDto> findResponses(BookingFilter filter, LocalDateTime now, KeysetCursor cursor,
+                                                  Pageable pageable) {
+        Set<BookingStatus> statuses = effectiveStatuses(filter);
+        if (statuses != null && statuses.isEmpty()) {
+            return List.of();
+        }
+
+        HibernateCriteriaBuilder cb = entityManager.unwrap(Session.class).getCriteriaBuilder();
+        JpaCriteriaQuery<BookingResponseDto> query = cb.createQuery(BookingResponseDto.class);
+        JpaRoot<Booking> booking = query.from(Booking.class);
+        JpaEntityJoin<User> booker = booking.join(User.class);
+        booker.on(cb.equal(booker.get("id"), booking.get("bookerId")));
+        JpaEntityJoin<Item> item = booking.join(Item.class);
+        item.on(cb.equal(item.get("id"), booking.get("itemId")));
+
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        Path<Long> id = booking.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getBookerId() != null) {
+            predicates.add(cb.equal(booking.get("bookerId"), filter.getBookerId()));
+        }
+        if (filter.getOwnerId() != null) {
+            predicates.add(cb.equal(booking.get("ownerId"), filter.getOwnerId()));
+        }
+        if (filter.getItemId() != null) {
+            predicates.add(cb.equal(booking.get("itemId"), filter.getItemId()));
+        }
+        if (statuses != null) {
+            predicates.add(statuses.size() == 1
+                    ? cb.equal(booking.get("status"), statuses.iterator().next())
+                    : booking.get("status").in(statuses));
+        }
+        Predicate time = filter.getState().timePredicate(cb, start, end, now);
+        if (time != null) {
+            predicates.add(time);
+        }
+        if (filter.getRangeStart() != null) {
+            predicates.add(cb.greaterThan(end, filter.getRangeStart()));
+        }
+        if (filter.getRangeEnd() != null) {
+            predicates.add(cb.lessThan(start, filter.getRangeEnd()));
+        }
+        if (cursor != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(start, cursor.timestamp()),
+                    cb.and(cb.equal(start, cursor.timestamp()), cb.lessThan(id, cursor.id()))));
+        }
+
+        query.select(cb.construct(BookingResponseDto.class,
+                        id, start, end, booking.get("status"),
+                        booker.get("id"), booker.get("name"), item.get("id"), item.get("name")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(start), cb.desc(id));
+
+        return entityManager.createQuery(query)
+                .setFirstResult(cursor == null ? (int) pageable.getOffset() : 0)
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    /**
+     * Статусы, допустимые одновременно состоянием и явным набором; null - без ограничения,
+     * пустой набор - заведомо пустой результат.
+     */
+    private static Set<BookingStatus> effectiveStatuses(BookingFilter filter) {
+        BookingStatus stateStatus = filter.getState().getStatus();
+        Set<BookingStatus> requested = filter.getStatuses() == null || filter.getStatuses().isEmpty()
+                ? null
+                : EnumSet.copyOf(filter.getStatuses());
+        if (stateStatus == null) {
+            return requested;
+        }
+        if (requested == null || requested.contains(stateStatus)) {
+            return EnumSet.of(stateStatus);
+        }
+        return EnumSet.noneOf(BookingStatus.class);
+    }
+}
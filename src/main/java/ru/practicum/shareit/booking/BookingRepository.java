@@ -1,62 +1,57 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingExportRow;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingQueryRepository {
 
-    @Query("SELECT b FROM Booking b WHERE b.bookerId = :bookerId")
-    List<Booking> findByBookerId(@Param("bookerId") Long bookerId, Pageable pageable);
-
-    @Query("SELECT b FROM Booking b WHERE b.bookerId = :bookerId AND b.status = :status")
-    List<Booking> findByBookerIdAndStatus(@Param("bookerId") Long bookerId, @Param("status") BookingStatus status, Pageable pageable);
-
-    @Query("SELECT b FROM Booking b WHERE b.bookerId = :bookerId AND b.end < :now")
-    List<Booking> findByBookerIdAndEndBefore(@Param("bookerId") Long bookerId, @Param("now") LocalDateTime now, Pageable pageable);
-
-    @Query("SELECT b FROM Booking b WHERE b.bookerId = :bookerId AND b.start > :now")
-    List<Booking> findByBookerIdAndStartAfter(@Param("bookerId") Long bookerId, @Param("now") LocalDateTime now, Pageable pageable);
-
-    @Query("SELECT b FROM Booking b WHERE b.bookerId = :bookerId AND b.start < :now AND b.end > :now")
-    List<Booking> findByBookerIdAndStartBeforeAndEndAfter(@Param("bookerId") Long bookerId, @Param("now") LocalDateTime now, Pageable pageable);
+    @Query("SELECT b FROM Booking b, Item i WHERE b.itemId = i.id " + "AND b.itemId = :itemId AND b.bookerId = :bookerId AND b.end < :now AND b.status = 'APPROVED'")
+    List<Booking> findCompletedBookingsForItemAndUser(@Param("itemId") Long itemId, @Param("bookerId") Long bookerId, @Param("now") LocalDateTime now);
 
-    @Query("SELECT b FROM Booking b, Item i WHERE b.itemId = i.id AND i.ownerId = :ownerId")
-    List<Booking> findByItemOwnerId(@Param("ownerId") Long ownerId, Pageable pageable);
+    Optional<Booking> findFirstByItemIdAndStatusAndStartBeforeOrderByStartDesc(Long itemId, BookingStatus status, LocalDateTime now);
 
-    @Query("SELECT b FROM Booking b, Item i WHERE b.itemId = i.id AND i.ownerId = :ownerId AND b.status = :status")
-    List<Booking> findByItemOwnerIdAndStatus(@Param("ownerId") Long ownerId, @Param("status") BookingStatus status, Pageable pageable);
+    Optional<Booking> findFirstByItemIdAndStatusAndStartAfterOrderByStartAsc(Long itemId, BookingStatus status, LocalDateTime now);
 
-    @Query("SELECT b FROM Booking b, Item i WHERE b.itemId = i.id AND i.ownerId = :ownerId AND b.end < :now")
-    List<Booking> findByItemOwnerIdAndEndBefore(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now, Pageable pageable);
+    @Query(value = "SELECT id, start_date, end_date, item_id, booker_id, owner_id, status, version FROM (" +
+            "SELECT b.*, ROW_NUMBER() OVER (" +
+            "PARTITION BY b.item_id, CASE WHEN b.start_date < :now THEN 0 ELSE 1 END " +
+            "ORDER BY CASE WHEN b.start_date < :now THEN b.start_date END DESC, b.start_date ASC) AS rn " +
+            "FROM bookings b WHERE b.item_id IN (:itemIds) AND b.status = 'APPROVED' AND b.start_date <> :now" +
+            ") ranked WHERE ranked.rn = 1", nativeQuery = true)
+    List<Booking> findLastAndNextBookingsForItems(@Param("itemIds") Collection<Long> itemIds, @Param("now") LocalDateTime now);
 
-    @Query("SELECT b FROM Booking b, Item i WHERE b.itemId = i.id AND i.ownerId = :ownerId AND b.start > :now")
-    List<Booking> findByItemOwnerIdAndStartAfter(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now, Pageable pageable);
+    @Query("SELECT COUNT(b) > 0 FROM Booking b, Item i WHERE b.itemId = i.id " + "AND b.itemId = :itemId AND b.bookerId = :bookerId AND b.end < :now AND b.status = 'APPROVED'")
+    boolean hasUserBookedItem(@Param("itemId") Long itemId, @Param("bookerId") Long bookerId, @Param("now") LocalDateTime now);
 
-    @Query("SELECT b FROM Booking b, Item i WHERE b.itemId = i.id " + "AND i.ownerId = :ownerId AND b.start < :now AND b.end > :now")
-    List<Booking> findByItemOwnerIdAndStartBeforeAndEndAfter(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now, Pageable pageable);
+    Optional<Booking> findByIdAndBookerId(Long id, Long bookerId);
 
-    @Query("SELECT b FROM Booking b, Item i WHERE b.itemId = i.id " + "AND b.itemId = :itemId AND b.bookerId = :bookerId AND b.end < :now AND b.status = 'APPROVED'")
-    List<Booking> findCompletedBookingsForItemAndUser(@Param("itemId") Long itemId, @Param("bookerId") Long bookerId, @Param("now") LocalDateTime now);
+    List<Booking> findByItemIdAndStatusInAndEndAfter(Long itemId, Collection<BookingStatus> statuses, LocalDateTime end);
 
-    @Query("SELECT b FROM Booking b WHERE b.itemId = :itemId AND b.status = 'APPROVED' " + "AND b.start < :now ORDER BY b.start DESC")
-    Optional<Booking> findLastBookingForItem(@Param("itemId") Long itemId, @Param("now") LocalDateTime now);
+    List<Booking> findByItemIdInAndStatusAndStartBeforeAndEndAfter(Collection<Long> itemIds, BookingStatus status,
+                                                                    LocalDateTime end, LocalDateTime start);
 
-    @Query("SELECT b FROM Booking b WHERE b.itemId = :itemId AND b.status = 'APPROVED' " + "AND b.start > :now ORDER BY b.start ASC")
-    Optional<Booking> findNextBookingForItem(@Param("itemId") Long itemId, @Param("now") LocalDateTime now);
+    boolean existsByItemIdAndStatusAndStartBeforeAndEndAfter(Long itemId, BookingStatus status,
+                                                             LocalDateTime end, LocalDateTime start);
 
-    @Query("SELECT COUNT(b) > 0 FROM Booking b, Item i WHERE b.itemId = i.id " + "AND b.itemId = :itemId AND b.bookerId = :bookerId AND b.end < :now AND b.status = 'APPROVED'")
-    boolean hasUserBookedItem(@Param("itemId") Long itemId, @Param("bookerId") Long bookerId, @Param("now") LocalDateTime now);
+    boolean existsByItemIdAndStatusAndStartBeforeAndEndAfterAndIdNot(Long itemId, BookingStatus status,
+                                                                     LocalDateTime end, LocalDateTime start, Long id);
 
-    Optional<Booking> findByIdAndBookerId(Long id, Long bookerId);
+    @Query("SELECT DISTINCT b.itemId FROM Booking b WHERE b.id IN :ids AND b.ownerId = :ownerId")
+    List<Long> findItemIdsByIdInAndOwnerId(@Param("ids") Collection<Long> ids, @Param("ownerId") Long ownerId);
 
-    @Query("SELECT b FROM Booking b, Item i WHERE b.itemId = i.id AND b.id = :id AND i.ownerId = :ownerId")
-    Optional<Booking> findByIdAndItemOwnerId(@Param("id") Long id, @Param("ownerId") Long ownerId);
+    @Query("SELECT b FROM Booking b WHERE b.id = :id AND b.ownerId = :ownerId")
+    Optional<Booking> findByIdAndOwnerId(@Param("id") Long id, @Param("ownerId") Long ownerId);
 
     @Query("SELECT b FROM Booking b WHERE b.bookerId = :userId " +
             "AND b.itemId = :itemId " +
@@ -68,4 +63,27 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             @Param("status") BookingStatus status,
             @Param("now") LocalDateTime now
     );
-}
\ No newline at end of file
+
+    /**
+     * Размер порции строк, которую драйвер забирает из открытого курсора при выгрузке.
+     */
+    String EXPORT_FETCH_SIZE = "500";
+
+    String EXPORT_SELECT = "SELECT new ru.practicum.shareit.booking.dto.BookingExportRow(" +
+            "b.id, b.start, b.end, b.status, u.id, u.name, i.id, i.name) " +
+            "FROM Booking b JOIN User u ON u.id = b.bookerId JOIN Item i ON i.id = b.itemId ";
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(EXPORT_SELECT + "WHERE b.bookerId = :bookerId ORDER BY b.start DESC, b.id DESC")
+    Stream<BookingExportRow> streamExportByBookerId(@Param("bookerId") Long bookerId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(EXPORT_SELECT + "WHERE b.ownerId = :ownerId ORDER BY b.start DESC, b.id DESC")
+    Stream<BookingExportRow> streamExportByOwnerId(@Param("ownerId") Long ownerId);
+}
@@ -1,7 +1,10 @@
 package ru.practicum.shareit.booking;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateDto;
+import ru.practicum.shareit.pagination.KeysetCursor;
 
 import java.util.List;
 
@@ -10,9 +13,17 @@ public interface BookingService {
 
     BookingResponseDto updateBookingStatus(Long userId, Long bookingId, Boolean approved);
 
+    List<BookingBatchResultDto> createBookings(Long userId, List<BookingRequestDto> bookingRequestDtos);
+
+    List<BookingBatchResultDto> updateBookingStatuses(Long userId, List<BookingStatusUpdateDto> updates);
+
     BookingResponseDto getBookingById(Long userId, Long bookingId);
 
-    List<BookingResponseDto> getUserBookings(Long userId, String state, int from, int size);
+    List<BookingResponseDto> getUserBookings(Long userId, BookingFilter filter, int from, int size);
+
+    List<BookingResponseDto> getOwnerBookings(Long userId, BookingFilter filter, int from, int size);
+
+    List<BookingResponseDto> getUserBookings(Long userId, BookingFilter filter, KeysetCursor cursor, int size);
 
-    List<BookingResponseDto> getOwnerBookings(Long userId, String state, int from, int size);
+    List<BookingResponseDto> getOwnerBookings(Long userId, BookingFilter filter, KeysetCursor cursor, int size);
 }
\ No newline at end of file
@@ -2,22 +2,39 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateDto;
+import ru.practicum.shareit.cache.ResponseCache;
+import ru.practicum.shareit.event.BookingApproved;
+import ru.practicum.shareit.event.BookingCreated;
+import ru.practicum.shareit.event.BookingRejected;
+import ru.practicum.shareit.event.DomainEvent;
+import ru.practicum.shareit.event.DomainEventPublisher;
 import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemStatsUpdater;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -30,6 +47,13 @@ public class BookingServiceImpl implements BookingService {
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final BookingMapper bookingMapper;
+    private final ItemAvailabilityIndex availabilityIndex;
+    private final ResponseCache responseCache;
+    private final DomainEventPublisher eventPublisher;
+    private final ItemStatsUpdater itemStatsUpdater;
+
+    @Value("${shareit.booking.batch.max-size:100}")
+    private int maxBatchSize;
 
     @Override
     @Transactional
@@ -41,9 +65,13 @@ public class BookingServiceImpl implements BookingService {
         Item item = getItemOrThrow(bookingRequestDto.getItemId());
 
         validateBookingRules(userId, item);
+        validateNoApprovedOverlap(item.getId(), bookingRequestDto.getStart(), bookingRequestDto.getEnd());
 
         Booking booking = bookingMapper.toEntity(bookingRequestDto, userId);
+        booking.setOwnerId(item.getOwnerId());
         Booking savedBooking = bookingRepository.save(booking);
+        availabilityIndex.update(savedBooking);
+        eventPublisher.publish(bookingCreated(savedBooking));
 
         log.info("Бронирование создано с id: {}", savedBooking.getId());
 
@@ -77,6 +105,12 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
+    private void validateNoApprovedOverlap(Long itemId, LocalDateTime start, LocalDateTime end) {
+        if (bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfter(itemId, BookingStatus.APPROVED, end, start)) {
+            throw new ConflictException("Вещь уже забронирована на эти даты");
+        }
+    }
+
     @Override
     @Transactional
     public BookingResponseDto updateBookingStatus(Long userId, Long bookingId, Boolean approved) {
@@ -87,8 +121,23 @@ public class BookingServiceImpl implements BookingService {
 
         validateStatusUpdate(userId, booking, item);
 
+        // Блокировка и для отказа: пакетное изменение статусов полагается на неё, читая бронирования после неё
+        lockItem(item.getId());
+        if (approved) {
+            if (bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfterAndIdNot(
+                    item.getId(), BookingStatus.APPROVED, booking.getEnd(), booking.getStart(), booking.getId())) {
+                throw new ConflictException("Вещь уже забронирована на эти даты");
+            }
+        }
+
         booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
         bookingRepository.save(booking);
+        if (approved) {
+            itemStatsUpdater.bookingsApproved(List.of(booking));
+        }
+        availabilityIndex.update(booking);
+        responseCache.evictItem(item.getId());
+        eventPublisher.publish(statusChanged(booking));
 
         log.info("Статус бронирования id: {} обновлен на: {}", bookingId, booking.getStatus());
 
@@ -106,6 +155,220 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> createBookings(Long userId, List<BookingRequestDto> bookingRequestDtos) {
+        log.info("Пакетное создание {} бронирований для пользователя с id: {}", bookingRequestDtos.size(), userId);
+        validateBatchSize(bookingRequestDtos.size());
+
+        User booker = getUserOrThrow(userId);
+        Map<Long, Item> items = itemRepository.findAllById(bookingRequestDtos.stream()
+                        .map(BookingRequestDto::getItemId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        Map<Long, List<Booking>> approved = findApprovedOverlapping(items.keySet(), bookingRequestDtos.stream()
+                .filter(dto -> dto.getStart() != null && dto.getEnd() != null)
+                .map(dto -> Booking.builder().start(dto.getStart()).end(dto.getEnd()).build())
+                .collect(Collectors.toList()));
+
+        BookingBatchResultDto[] results = new BookingBatchResultDto[bookingRequestDtos.size()];
+        List<Booking> bookings = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < bookingRequestDtos.size(); i++) {
+            BookingRequestDto dto = bookingRequestDtos.get(i);
+            try {
+                validateDates(dto);
+                Item item = items.get(dto.getItemId());
+                if (item == null) {
+                    throw new NotFoundException("Вещь не найдена с id: " + dto.getItemId());
+                }
+                validateBookingRules(userId, item);
+                if (overlaps(approved.get(item.getId()), dto.getStart(), dto.getEnd(), null)) {
+                    throw new ConflictException("Вещь уже забронирована на эти даты");
+                }
+
+                Booking booking = bookingMapper.toEntity(dto, userId);
+                booking.setOwnerId(item.getOwnerId());
+                bookings.add(booking);
+                positions.add(i);
+            } catch (RuntimeException e) {
+                results[i] = batchFailure(i, e);
+            }
+        }
+
+        // Идентификаторы берутся из последовательности, поэтому вставки уходят JDBC-пакетами
+        List<Booking> saved = bookingRepository.saveAll(bookings);
+        for (int k = 0; k < saved.size(); k++) {
+            Booking booking = saved.get(k);
+            availabilityIndex.update(booking);
+            int index = positions.get(k);
+            results[index] = batchSuccess(index, HttpStatus.CREATED,
+                    bookingMapper.toDto(booking, booker, items.get(booking.getItemId())));
+        }
+        eventPublisher.publishAll(saved.stream().map(BookingServiceImpl::bookingCreated).collect(Collectors.toList()));
+
+        log.info("Пакетно создано бронирований: {} из {}", saved.size(), bookingRequestDtos.size());
+        return Arrays.asList(results);
+    }
+
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> updateBookingStatuses(Long userId, List<BookingStatusUpdateDto> updates) {
+        log.info("Пакетное обновление {} статусов бронирований пользователем id: {}", updates.size(), userId);
+        validateBatchSize(updates.size());
+
+        Set<Long> bookingIds = updates.stream()
+                .map(BookingStatusUpdateDto::getBookingId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        // Вещи блокируются до чтения бронирований: все изменения статуса берут эту блокировку,
+        // поэтому прочитанные после неё статусы не устареют до коммита
+        Set<Long> lockedItemIds = bookingIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(bookingRepository.findItemIdsByIdInAndOwnerId(bookingIds, userId));
+        if (!lockedItemIds.isEmpty()) {
+            itemRepository.findAllByIdForUpdate(lockedItemIds);
+        }
+
+        Map<Long, Booking> bookings = bookingRepository.findAllById(bookingIds).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        Map<Long, Item> items = itemRepository.findAllById(bookings.values().stream()
+                        .map(Booking::getItemId)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        Map<Long, User> bookers = userRepository.findAllById(bookings.values().stream()
+                        .map(Booking::getBookerId)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<Booking> toApprove = updates.stream()
+                .filter(update -> Boolean.TRUE.equals(update.getApproved()))
+                .map(update -> bookings.get(update.getBookingId()))
+                .filter(Objects::nonNull)
+                .filter(booking -> lockedItemIds.contains(booking.getItemId()))
+                .collect(Collectors.toList());
+        Map<Long, List<Booking>> approved = findApprovedOverlapping(lockedItemIds, toApprove);
+
+        BookingBatchResultDto[] results = new BookingBatchResultDto[updates.size()];
+        List<Booking> changed = new ArrayList<>();
+        for (int i = 0; i < updates.size(); i++) {
+            BookingStatusUpdateDto update = updates.get(i);
+            try {
+                if (update.getBookingId() == null || update.getApproved() == null) {
+                    throw new ValidationException("Идентификатор бронирования и решение обязательны");
+                }
+                Booking booking = bookings.get(update.getBookingId());
+                if (booking == null) {
+                    throw new NotFoundException("Бронирование не найдено с id: " + update.getBookingId());
+                }
+                Item item = items.get(booking.getItemId());
+                if (item == null) {
+                    throw new NotFoundException("Вещь не найдена с id: " + booking.getItemId());
+                }
+                validateStatusUpdate(userId, booking, item);
+
+                if (update.getApproved()) {
+                    List<Booking> itemApproved = approved.computeIfAbsent(item.getId(), id -> new ArrayList<>());
+                    if (overlaps(itemApproved, booking.getStart(), booking.getEnd(), booking.getId())) {
+                        throw new ConflictException("Вещь уже забронирована на эти даты");
+                    }
+                    itemApproved.add(booking);
+                }
+
+                booking.setStatus(update.getApproved() ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+                changed.add(booking);
+                results[i] = batchSuccess(i, HttpStatus.OK,
+                        bookingMapper.toDto(booking, bookers.get(booking.getBookerId()), item));
+            } catch (RuntimeException e) {
+                results[i] = batchFailure(i, e);
+            }
+        }
+
+        // Изменения уходят одним JDBC-пакетом при коммите
+        bookingRepository.saveAll(changed);
+        itemStatsUpdater.bookingsApproved(changed.stream()
+                .filter(booking -> booking.getStatus() == BookingStatus.APPROVED)
+                .collect(Collectors.toList()));
+        changed.forEach(availabilityIndex::update);
+        changed.stream().map(Booking::getItemId).distinct().forEach(responseCache::evictItem);
+        eventPublisher.publishAll(changed.stream().map(BookingServiceImpl::statusChanged).collect(Collectors.toList()));
+
+        log.info("Пакетно обновлено статусов: {} из {}", changed.size(), updates.size());
+        return Arrays.asList(results);
+    }
+
+    private static DomainEvent bookingCreated(Booking booking) {
+        return new BookingCreated(booking.getId(), booking.getItemId(), booking.getBookerId(), booking.getOwnerId(),
+                booking.getStart(), booking.getEnd());
+    }
+
+    private static DomainEvent statusChanged(Booking booking) {
+        return booking.getStatus() == BookingStatus.APPROVED
+                ? new BookingApproved(booking.getId(), booking.getItemId(), booking.getBookerId(), booking.getOwnerId())
+                : new BookingRejected(booking.getId(), booking.getItemId(), booking.getBookerId(), booking.getOwnerId());
+    }
+
+    private void validateBatchSize(int size) {
+        if (size == 0) {
+            throw new ValidationException("Пакет операций не может быть пустым");
+        }
+        if (size > maxBatchSize) {
+            throw new ValidationException("Пакет не может содержать больше " + maxBatchSize + " операций");
+        }
+    }
+
+    /**
+     * Подтверждённые бронирования указанных вещей, пересекающие общий интервал всех интервалов из списка.
+     */
+    private Map<Long, List<Booking>> findApprovedOverlapping(Set<Long> itemIds, List<Booking> intervals) {
+        if (itemIds.isEmpty() || intervals.isEmpty()) {
+            return new HashMap<>();
+        }
+        LocalDateTime from = intervals.stream().map(Booking::getStart).min(LocalDateTime::compareTo).orElseThrow();
+        LocalDateTime to = intervals.stream().map(Booking::getEnd).max(LocalDateTime::compareTo).orElseThrow();
+        return bookingRepository.findByItemIdInAndStatusAndStartBeforeAndEndAfter(itemIds, BookingStatus.APPROVED, to, from)
+                .stream()
+                .collect(Collectors.groupingBy(Booking::getItemId, HashMap::new, Collectors.toCollection(ArrayList::new)));
+    }
+
+    private static boolean overlaps(List<Booking> bookings, LocalDateTime start, LocalDateTime end, Long excludedId) {
+        if (bookings == null) {
+            return false;
+        }
+        return bookings.stream()
+                .anyMatch(booking -> !booking.getId().equals(excludedId)
+                        && booking.getStart().isBefore(end) && booking.getEnd().isAfter(start));
+    }
+
+    private static BookingBatchResultDto batchSuccess(int index, HttpStatus status, BookingResponseDto booking) {
+        return BookingBatchResultDto.builder()
+                .index(index)
+                .status(status.value())
+                .booking(booking)
+                .build();
+    }
+
+    private static BookingBatchResultDto batchFailure(int index, RuntimeException e) {
+        HttpStatus status;
+        if (e instanceof NotFoundException) {
+            status = HttpStatus.NOT_FOUND;
+        } else if (e instanceof ValidationException || e instanceof ItemNotAvailableException) {
+            status = HttpStatus.BAD_REQUEST;
+        } else if (e instanceof AccessDeniedException) {
+            status = HttpStatus.FORBIDDEN;
+        } else if (e instanceof ConflictException) {
+            status = HttpStatus.CONFLICT;
+        } else {
+            throw e;
+        }
+        return BookingBatchResultDto.builder()
+                .index(index)
+                .status(status.value())
+                .error(e.getMessage())
+                .build();
+    }
+
     @Override
     public BookingResponseDto getBookingById(Long userId, Long bookingId) {
         log.info("Получение информации о бронировании id: {} пользователем id: {}", bookingId, userId);
@@ -126,79 +389,61 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingResponseDto> getUserBookings(Long userId, String state, int from, int size) {
-        log.info("Получение бронирований пользователя id: {} со статусом: {}", userId, state);
+    public List<BookingResponseDto> getUserBookings(Long userId, BookingFilter filter, int from, int size) {
+        log.info("Получение бронирований пользователя id: {} со статусом: {}", userId, filter.getState());
         validateUserExists(userId);
         validatePagination(from, size);
+        validateFilter(filter);
 
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by("start").descending());
-        LocalDateTime now = LocalDateTime.now();
-
-        List<Booking> bookings = getBookingsForUser(userId, state, now, pageable);
-        return convertBookingsToDto(bookings);
+        return bookingRepository.findResponses(filter.toBuilder().bookerId(userId).build(), LocalDateTime.now(),
+                null, PageRequest.of(from / size, size));
     }
 
     @Override
-    public List<BookingResponseDto> getOwnerBookings(Long userId, String state, int from, int size) {
-        log.info("Получение бронирований владельца id: {} со статусом: {}", userId, state);
+    public List<BookingResponseDto> getOwnerBookings(Long userId, BookingFilter filter, int from, int size) {
+        log.info("Получение бронирований владельца id: {} со статусом: {}", userId, filter.getState());
         validateUserExists(userId);
         validatePagination(from, size);
+        validateFilter(filter);
 
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by("start").descending());
-        LocalDateTime now = LocalDateTime.now();
-
-        List<Booking> bookings = getBookingsForOwner(userId, state, now, pageable);
-        return convertBookingsToDto(bookings);
+        return bookingRepository.findResponses(filter.toBuilder().ownerId(userId).build(), LocalDateTime.now(),
+                null, PageRequest.of(from / size, size));
     }
 
-    private List<BookingResponseDto> convertBookingsToDto(List<Booking> bookings) {
-        if (bookings.isEmpty()) {
-            return List.of();
-        }
-
-        List<Long> userIds = bookings.stream()
-                .map(Booking::getBookerId)
-                .distinct()
-                .collect(Collectors.toList());
-
-        List<Long> itemIds = bookings.stream()
-                .map(Booking::getItemId)
-                .distinct()
-                .collect(Collectors.toList());
-
-        // Загрузка пользователей и вещей
-        Map<Long, User> users = userRepository.findAllById(userIds).stream()
-                .collect(Collectors.toMap(User::getId, Function.identity()));
-
-        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
-                .collect(Collectors.toMap(Item::getId, Function.identity()));
+    @Override
+    public List<BookingResponseDto> getUserBookings(Long userId, BookingFilter filter, KeysetCursor cursor, int size) {
+        log.info("Получение бронирований пользователя id: {} со статусом: {} после курсора", userId, filter.getState());
+        validateUserExists(userId);
+        validatePagination(0, size);
+        validateFilter(filter);
 
-        return bookings.stream()
-                .map(booking -> {
-                    User booker = users.get(booking.getBookerId());
-                    Item item = items.get(booking.getItemId());
+        return bookingRepository.findResponses(filter.toBuilder().bookerId(userId).build(), LocalDateTime.now(),
+                cursor, PageRequest.of(0, size));
+    }
 
-                    if (booker == null) {
-                        log.error("Booker не найден для бронирования id: {}", booking.getId());
-                        throw new NotFoundException("Пользователь не найден с id: " + booking.getBookerId());
-                    }
-                    if (item == null) {
-                        log.error("Вещь не найдена для бронирования id: {}", booking.getId());
-                        throw new NotFoundException("Вещь не найдена с id: " + booking.getItemId());
-                    }
+    @Override
+    public List<BookingResponseDto> getOwnerBookings(Long userId, BookingFilter filter, KeysetCursor cursor, int size) {
+        log.info("Получение бронирований владельца id: {} со статусом: {} после курсора", userId, filter.getState());
+        validateUserExists(userId);
+        validatePagination(0, size);
+        validateFilter(filter);
 
-                    return bookingMapper.toDto(booking, booker, item);
-                })
-                .collect(Collectors.toList());
+        return bookingRepository.findResponses(filter.toBuilder().ownerId(userId).build(), LocalDateTime.now(),
+                cursor, PageRequest.of(0, size));
     }
 
     private User getUserOrThrow(Long userId) {
-        return userRepository.findById(userId)
+        return userRepository.findCachedById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден с id: " + userId));
     }
 
     private Item getItemOrThrow(Long itemId) {
-        return itemRepository.findById(itemId)
+        return itemRepository.findCachedById(itemId)
+                .orElseThrow(() -> new NotFoundException("Вещь не найдена с id: " + itemId));
+    }
+
+    private void lockItem(Long itemId) {
+        itemRepository.findByIdForUpdate(itemId)
                 .orElseThrow(() -> new NotFoundException("Вещь не найдена с id: " + itemId));
     }
 
@@ -208,8 +453,13 @@ public class BookingServiceImpl implements BookingService {
     }
 
     private void validateUserExists(Long userId) {
-        if (!userRepository.existsById(userId)) {
-            throw new NotFoundException("Пользователь не найден с id: " + userId);
+        getUserOrThrow(userId);
+    }
+
+    private void validateFilter(BookingFilter filter) {
+        if (filter.getRangeStart() != null && filter.getRangeEnd() != null
+                && !filter.getRangeStart().isBefore(filter.getRangeEnd())) {
+            throw new ValidationException("Начало интервала должно быть раньше его конца");
         }
     }
 
@@ -221,42 +471,4 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("Параметр 'size' должен быть положительным");
         }
     }
-
-    private List<Booking> getBookingsForUser(Long userId, String state, LocalDateTime now, Pageable pageable) {
-        switch (state.toUpperCase()) {
-            case "ALL":
-                return bookingRepository.findByBookerId(userId, pageable);
-            case "CURRENT":
-                return bookingRepository.findByBookerIdAndStartBeforeAndEndAfter(userId, now, pageable);
-            case "PAST":
-                return bookingRepository.findByBookerIdAndEndBefore(userId, now, pageable);
-            case "FUTURE":
-                return bookingRepository.findByBookerIdAndStartAfter(userId, now, pageable);
-            case "WAITING":
-                return bookingRepository.findByBookerIdAndStatus(userId, BookingStatus.WAITING, pageable);
-            case "REJECTED":
-                return bookingRepository.findByBookerIdAndStatus(userId, BookingStatus.REJECTED, pageable);
-            default:
-                throw new ValidationException("Неизвестный статус: " + state);
-        }
-    }
-
-    private List<Booking> getBookingsForOwner(Long userId, String state, LocalDateTime now, Pageable pageable) {
-        switch (state.toUpperCase()) {
-            case "ALL":
-                return bookingRepository.findByItemOwnerId(userId, pageable);
-            case "CURRENT":
-                return bookingRepository.findByItemOwnerIdAndStartBeforeAndEndAfter(userId, now, pageable);
-            case "PAST":
-                return bookingRepository.findByItemOwnerIdAndEndBefore(userId, now, pageable);
-            case "FUTURE":
-                return bookingRepository.findByItemOwnerIdAndStartAfter(userId, now, pageable);
-            case "WAITING":
-                return bookingRepository.findByItemOwnerIdAndStatus(userId, BookingStatus.WAITING, pageable);
-            case "REJECTED":
-                return bookingRepository.findByItemOwnerIdAndStatus(userId, BookingStatus.REJECTED, pageable);
-            default:
-                throw new ValidationException("Неизвестный статус: " + state);
-        }
-    }
 }
\ No newline at end of file
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.time.LocalDateTime;
+
+/**
+ * Состояние из параметра {@code state} списков бронирований. Временные состояния ограничивают даты
+ * относительно текущего момента, остальные - статус бронирования.
+ */
+public enum BookingState {
+    ALL(null),
+    CURRENT(null) {
+        @Override
+        Predicate timePredicate(CriteriaBuilder cb, Path<LocalDateTime> start, Path<LocalDateTime> end,
+                                LocalDateTime now) {
+            return cb.and(cb.lessThan(start, now), cb.greaterThan(end, now));
+        }
+    },
+    PAST(null) {
+        @Override
+        Predicate timePredicate(CriteriaBuilder cb, Path<LocalDateTime> start, Path<LocalDateTime> end,
+                                LocalDateTime now) {
+            return cb.lessThan(end, now);
+        }
+    },
+    FUTURE(null) {
+        @Override
+        Predicate timePredicate(CriteriaBuilder cb, Path<LocalDateTime> start, Path<LocalDateTime> end,
+                                LocalDateTime now) {
+            return cb.greaterThan(start, now);
+        }
+    },
+    WAITING(BookingStatus.WAITING),
+    REJECTED(BookingStatus.REJECTED),
+    CANCELED(BookingStatus.CANCELED);
+
+    private final BookingStatus status;
+
+    BookingState(BookingStatus status) {
+        this.status = status;
+    }
+
+    /**
+     * Статус, которым ограничено состояние, или null для временных состояний и ALL.
+     */
+    public BookingStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Условие на даты бронирования; null, если состояние даты не ограничивает.
+     */
+    Predicate timePredicate(CriteriaBuilder cb, Path<LocalDateTime> start, Path<LocalDateTime> end,
+                            LocalDateTime now) {
+        return null;
+    }
+
+    public static BookingState from(String state) {
+        try {
+            return valueOf(state.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Неизвестный статус: " + state);
+        }
+    }
+}
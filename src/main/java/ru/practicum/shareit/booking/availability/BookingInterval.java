@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.availability;
+
+import java.time.LocalDateTime;
+
+/**
+ * Полуоткрытый интервал [start, end), занятый бронированием.
+ */
+public record BookingInterval(Long bookingId, LocalDateTime start, LocalDateTime end) {
+}
@@ -0,0 +1,168 @@
+package ru.practicum.shareit.booking.availability;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * AVL-дерево интервалов бронирований одной вещи, упорядоченное по (start, bookingId),
+ * где каждый узел хранит максимальный конец интервала в поддереве.
+ * Поиск пересечений отсекает поддеревья, целиком закончившиеся до начала запроса.
+ * Не потокобезопасно, синхронизацию обеспечивает вызывающий код.
+ */
+class IntervalTree {
+
+    private static final Comparator<BookingInterval> ORDER = Comparator.comparing(BookingInterval::start)
+            .thenComparing(BookingInterval::bookingId);
+
+    private final Map<Long, BookingInterval> byBookingId = new HashMap<>();
+    private Node root;
+
+    /**
+     * Добавляет интервал бронирования или заменяет ранее добавленный с тем же идентификатором.
+     */
+    void put(BookingInterval interval) {
+        remove(interval.bookingId());
+        root = insert(root, interval);
+        byBookingId.put(interval.bookingId(), interval);
+    }
+
+    void remove(Long bookingId) {
+        BookingInterval existing = byBookingId.remove(bookingId);
+        if (existing != null) {
+            root = delete(root, existing);
+        }
+    }
+
+    int size() {
+        return byBookingId.size();
+    }
+
+    /**
+     * Интервалы, пересекающие [from, to), в порядке возрастания начала.
+     */
+    List<BookingInterval> overlapping(LocalDateTime from, LocalDateTime to) {
+        List<BookingInterval> result = new ArrayList<>();
+        collect(root, from, to, result);
+        return result;
+    }
+
+    private static void collect(Node node, LocalDateTime from, LocalDateTime to, List<BookingInterval> result) {
+        if (node == null || !node.maxEnd.isAfter(from)) {
+            return;
+        }
+        collect(node.left, from, to, result);
+        if (node.interval.start().isBefore(to)) {
+            if (node.interval.end().isAfter(from)) {
+                result.add(node.interval);
+            }
+            collect(node.right, from, to, result);
+        }
+    }
+
+    private static Node insert(Node node, BookingInterval interval) {
+        if (node == null) {
+            return new Node(interval);
+        }
+        if (ORDER.compare(interval, node.interval) < 0) {
+            node.left = insert(node.left, interval);
+        } else {
+            node.right = insert(node.right, interval);
+        }
+        return balance(node);
+    }
+
+    private static Node delete(Node node, BookingInterval interval) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = ORDER.compare(interval, node.interval);
+        if (cmp < 0) {
+            node.left = delete(node.left, interval);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, interval);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            node.interval = successor.interval;
+            node.right = delete(node.right, successor.interval);
+        }
+        return balance(node);
+    }
+
+    private static Node balance(Node node) {
+        update(node);
+        int skew = height(node.left) - height(node.right);
+        if (skew > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (skew < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        LocalDateTime maxEnd = node.interval.end();
+        if (node.left != null && node.left.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.right.maxEnd;
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static final class Node {
+        private BookingInterval interval;
+        private LocalDateTime maxEnd;
+        private int height = 1;
+        private Node left;
+        private Node right;
+
+        private Node(BookingInterval interval) {
+            this.interval = interval;
+            this.maxEnd = interval.end();
+        }
+    }
+}
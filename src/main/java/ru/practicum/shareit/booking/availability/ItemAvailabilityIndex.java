@@ -0,0 +1,121 @@
+package ru.practicum.shareit.booking.availability;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.persistence.PrimaryReads;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Деревья занятых интервалов для недавно запрошенных вещей.
+ * Дерево вещи загружается из базы при первом запросе доступности и дальше поддерживается
+ * изменениями бронирований после коммита, так что повторные запросы не обращаются к базе.
+ * Дерево загружается с основной базы: построенное по отстающей реплике, оно не получило бы уже
+ * закоммиченные изменения и оставалось бы неверным, пока к вещи обращаются.
+ */
+@Slf4j
+@Component
+public class ItemAvailabilityIndex {
+
+    static final Set<BookingStatus> BUSY_STATUSES = EnumSet.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final PrimaryReads primaryReads;
+    private final Cache<Long, Timeline> timelines;
+
+    public ItemAvailabilityIndex(BookingRepository bookingRepository,
+                                 PrimaryReads primaryReads,
+                                 @Value("${shareit.availability.max-items:10000}") long maxItems,
+                                 @Value("${shareit.availability.ttl:10m}") Duration ttl) {
+        this.bookingRepository = bookingRepository;
+        this.primaryReads = primaryReads;
+        this.timelines = Caffeine.newBuilder()
+                .maximumSize(maxItems)
+                .expireAfterAccess(ttl)
+                .build();
+    }
+
+    /**
+     * Занятые интервалы вещи, пересекающие [from, to), в порядке возрастания начала.
+     */
+    public List<BookingInterval> busy(Long itemId, LocalDateTime from, LocalDateTime to) {
+        Timeline timeline = timelines.get(itemId, this::load);
+        timeline.lock.readLock().lock();
+        try {
+            return timeline.tree.overlapping(from, to);
+        } finally {
+            timeline.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Учитывает созданное бронирование или смену его статуса. В транзакции применяется после коммита;
+     * вещи, для которых дерево ещё не построено, пропускаются.
+     */
+    public void update(Booking booking) {
+        BookingInterval interval = new BookingInterval(booking.getId(), booking.getStart(), booking.getEnd());
+        boolean busy = BUSY_STATUSES.contains(booking.getStatus());
+        Long itemId = booking.getItemId();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(itemId, interval, busy);
+                }
+            });
+        } else {
+            apply(itemId, interval, busy);
+        }
+    }
+
+    public void evict(Long itemId) {
+        timelines.invalidate(itemId);
+    }
+
+    private void apply(Long itemId, BookingInterval interval, boolean busy) {
+        // computeIfPresent дожидается загрузки того же ключа, поэтому изменение не теряется
+        timelines.asMap().computeIfPresent(itemId, (id, timeline) -> {
+            timeline.lock.writeLock().lock();
+            try {
+                if (busy) {
+                    timeline.tree.put(interval);
+                } else {
+                    timeline.tree.remove(interval.bookingId());
+                }
+            } finally {
+                timeline.lock.writeLock().unlock();
+            }
+            return timeline;
+        });
+    }
+
+    private Timeline load(Long itemId) {
+        Timeline timeline = new Timeline();
+        primaryReads.read(() -> bookingRepository.findByItemIdAndStatusInAndEndAfter(
+                        itemId, BUSY_STATUSES, LocalDateTime.now()))
+                .forEach(booking -> timeline.tree.put(
+                        new BookingInterval(booking.getId(), booking.getStart(), booking.getEnd())));
+        log.debug("Загружено дерево занятости вещи id: {}, интервалов: {}", itemId, timeline.tree.size());
+        return timeline;
+    }
+
+    private static final class Timeline {
+        private final IntervalTree tree = new IntervalTree();
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.availability;
+
+import ru.practicum.shareit.booking.dto.ItemAvailabilityDto;
+
+import java.time.LocalDateTime;
+
+public interface ItemAvailabilityService {
+
+    ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.booking.dto.TimeWindowDto;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ItemAvailabilityServiceImpl implements ItemAvailabilityService {
+
+    private static final Duration MAX_RANGE = Duration.ofDays(366);
+
+    private final ItemRepository itemRepository;
+    private final ItemAvailabilityIndex availabilityIndex;
+
+    @Override
+    public ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        log.info("Получение свободных интервалов вещи id: {} с {} по {}", itemId, from, to);
+        validateRange(from, to);
+
+        Item item = itemRepository.findCachedById(itemId)
+                .orElseThrow(() -> new NotFoundException("Вещь не найдена с id: " + itemId));
+
+        // Прошедшее время забронировать нельзя, поэтому окно начинается не раньше текущего момента
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = from.isBefore(now) ? now : from;
+        if (!Boolean.TRUE.equals(item.getAvailable()) || !start.isBefore(to)) {
+            return new ItemAvailabilityDto(itemId, from, to, List.of());
+        }
+
+        List<TimeWindowDto> free = new ArrayList<>();
+        LocalDateTime cursor = start;
+        for (BookingInterval busy : availabilityIndex.busy(itemId, start, to)) {
+            if (busy.start().isAfter(cursor)) {
+                free.add(new TimeWindowDto(cursor, busy.start()));
+            }
+            if (busy.end().isAfter(cursor)) {
+                cursor = busy.end();
+            }
+        }
+        if (cursor.isBefore(to)) {
+            free.add(new TimeWindowDto(cursor, to));
+        }
+        return new ItemAvailabilityDto(itemId, from, to, free);
+    }
+
+    private void validateRange(LocalDateTime from, LocalDateTime to) {
+        if (!to.isAfter(from)) {
+            throw new ValidationException("Конец интервала должен быть после начала");
+        }
+        if (Duration.between(from, to).compareTo(MAX_RANGE) > 0) {
+            throw new ValidationException("Интервал не может быть длиннее " + MAX_RANGE.toDays() + " дней");
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.booking.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Строка выгрузки истории бронирований с уже подставленными именами букера и вещи.
+ */
+public record BookingExportRow(Long id,
+                               LocalDateTime start,
+                               LocalDateTime end,
+                               BookingStatus status,
+                               Long bookerId,
+                               String bookerName,
+                               Long itemId,
+                               String itemName) {
+}
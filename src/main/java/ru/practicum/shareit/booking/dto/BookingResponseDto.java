@@ -20,6 +20,14 @@ public class BookingResponseDto {
     private BookerDto booker;
     private ItemDto item;
 
+    /**
+     * Конструктор для проекций JPQL, которые не умеют создавать вложенные объекты.
+     */
+    public BookingResponseDto(Long id, LocalDateTime start, LocalDateTime end, BookingStatus status,
+                              Long bookerId, String bookerName, Long itemId, String itemName) {
+        this(id, start, end, status, new BookerDto(bookerId, bookerName), new ItemDto(itemId, itemName));
+    }
+
     @Data
     @Builder
     @NoArgsConstructor
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingStatusUpdateDto {
+    @NotNull(message = "Booking ID cannot be null")
+    private Long bookingId;
+
+    @NotNull(message = "Approved flag cannot be null")
+    private Boolean approved;
+}
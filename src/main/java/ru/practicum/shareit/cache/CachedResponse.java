@@ -0,0 +1,14 @@
+package ru.practicum.shareit.cache;
+
+import java.time.LocalDateTime;
+
+/**
+ * Готовый ответ вместе с его ETag. Если задан {@code expiresAt}, ответ устаревает
+ * в этот момент без всякой записи, например когда следующее бронирование вещи становится последним.
+ */
+public record CachedResponse<T>(T body, String etag, LocalDateTime expiresAt) {
+
+    boolean isExpired(LocalDateTime now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+}
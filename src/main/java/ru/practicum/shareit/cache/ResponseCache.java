@@ -0,0 +1,135 @@
+package ru.practicum.shareit.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+import ru.practicum.shareit.persistence.PrimaryReads;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Серверный кэш готовых ответов на чтение вещей и пользователей с ETag по содержимому ответа.
+ * Записи сбрасываются после коммита изменяющих транзакций этого экземпляра, на остальных экземплярах
+ * устаревание ограничено временем жизни записи.
+ * <p>
+ * Ответ, собранный во время сброса, в кэш не попадает: загрузка могла прочитать состояние до коммита
+ * и положить его уже после сброса. Для этого каждый сброс увеличивает поколение кэша, а {@link #get}
+ * сохраняет ответ, только если поколение за время загрузки не изменилось. Загрузка читает с основной базы:
+ * ответ, собранный по отстающей реплике, пережил бы сброс.
+ */
+@Component
+public class ResponseCache {
+
+    public static final String USERS_PREFIX = "users:";
+    private static final String ITEM_PREFIX = "item:";
+
+    private final ObjectMapper objectMapper;
+    private final PrimaryReads primaryReads;
+    private final Cache<String, CachedResponse<?>> responses;
+    private final AtomicLong generation = new AtomicLong();
+
+    public ResponseCache(ObjectMapper objectMapper,
+                         PrimaryReads primaryReads,
+                         @Value("${shareit.response-cache.max-size:10000}") long maxSize,
+                         @Value("${shareit.response-cache.ttl:1m}") Duration ttl) {
+        this.objectMapper = objectMapper;
+        this.primaryReads = primaryReads;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Ответ на GET /items/{id} отличается для владельца (с ближайшими бронированиями) и остальных.
+     */
+    public static String itemKey(Long itemId, boolean owner) {
+        return ITEM_PREFIX + itemId + (owner ? ":owner" : ":viewer");
+    }
+
+    public static String userKey(Long userId) {
+        return "user:" + userId;
+    }
+
+    public <T> CachedResponse<T> get(String key, Supplier<T> loader) {
+        return get(key, loader, body -> null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> CachedResponse<T> get(String key, Supplier<T> loader, Function<T, LocalDateTime> expiresAt) {
+        CachedResponse<T> cached = (CachedResponse<T>) responses.getIfPresent(key);
+        if (cached != null && !cached.isExpired(LocalDateTime.now())) {
+            return cached;
+        }
+        long loadedAt = generation.get();
+        T body = primaryReads.read(loader);
+        CachedResponse<T> response = new CachedResponse<>(body, etag(body), expiresAt.apply(body));
+        if (generation.get() == loadedAt) {
+            responses.put(key, response);
+            // Сброс мог начаться между проверкой и записью и не увидеть её
+            if (generation.get() != loadedAt) {
+                responses.asMap().remove(key, response);
+            }
+        }
+        return response;
+    }
+
+    public void evictItem(Long itemId) {
+        evict(List.of(itemKey(itemId, true), itemKey(itemId, false)));
+    }
+
+    public void evictUser(Long userId) {
+        afterCommit(() -> {
+            generation.incrementAndGet();
+            responses.invalidate(userKey(userId));
+            // Имя пользователя входит в списки пользователей и в отзывы на вещи
+            responses.asMap().keySet().removeIf(key -> key.startsWith(USERS_PREFIX) || key.startsWith(ITEM_PREFIX));
+        });
+    }
+
+    public void evictUserLists() {
+        afterCommit(() -> {
+            generation.incrementAndGet();
+            responses.asMap().keySet().removeIf(key -> key.startsWith(USERS_PREFIX));
+        });
+    }
+
+    private void evict(List<String> keys) {
+        afterCommit(() -> {
+            generation.incrementAndGet();
+            responses.invalidateAll(keys);
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private String etag(Object body) {
+        try {
+            return "\"" + DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(body)) + "\"";
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать ответ для ETag", e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.event;
+
+public record BookingApproved(Long bookingId, Long itemId, Long bookerId, Long ownerId) implements DomainEvent {
+
+    @Override
+    public String aggregateType() {
+        return "booking";
+    }
+
+    @Override
+    public Long aggregateId() {
+        return bookingId;
+    }
+}
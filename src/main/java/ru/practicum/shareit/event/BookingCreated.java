@@ -0,0 +1,17 @@
+package ru.practicum.shareit.event;
+
+import java.time.LocalDateTime;
+
+public record BookingCreated(Long bookingId, Long itemId, Long bookerId, Long ownerId,
+                             LocalDateTime start, LocalDateTime end) implements DomainEvent {
+
+    @Override
+    public String aggregateType() {
+        return "booking";
+    }
+
+    @Override
+    public Long aggregateId() {
+        return bookingId;
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.event;
+
+/**
+ * Относится к агрегату вещи: отзывы и изменения одной вещи доставляются в общем порядке.
+ */
+public record CommentAdded(Long commentId, Long itemId, Long authorId) implements DomainEvent {
+
+    @Override
+    public String aggregateType() {
+        return "item";
+    }
+
+    @Override
+    public Long aggregateId() {
+        return itemId;
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.event;
+
+/**
+ * Событие предметной области, которое записывается в outbox в транзакции изменения и доставляется
+ * потребителям после коммита. События одного агрегата доставляются в порядке записи.
+ */
+public sealed interface DomainEvent permits BookingCreated, BookingApproved, BookingRejected, CommentAdded, ItemUpdated {
+
+    String aggregateType();
+
+    Long aggregateId();
+}
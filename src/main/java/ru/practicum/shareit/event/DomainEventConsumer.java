@@ -0,0 +1,12 @@
+package ru.practicum.shareit.event;
+
+/**
+ * Потребитель событий из outbox. Вызывается в потоке рассылки внутри её транзакции; исключение
+ * откладывает событие и последующие события того же агрегата до повторной попытки.
+ * Доставка «хотя бы один раз»: после сбоя событие получат повторно все потребители, поэтому обработка
+ * должна быть идемпотентной, а собственные записи в базу - идти в отдельной транзакции (REQUIRES_NEW).
+ */
+public interface DomainEventConsumer {
+
+    void handle(DomainEvent event) throws Exception;
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Записывает события в outbox в текущей транзакции: событие появляется тогда и только тогда,
+ * когда зафиксировано изменение, которое оно описывает. После коммита будит рассылку,
+ * чтобы доставка не ждала очередного опроса. Если рассылка выключена или потребителей нет
+ * ({@link OutboxDispatcher#isActive()}), события не записываются.
+ */
+@Component
+@RequiredArgsConstructor
+public class DomainEventPublisher {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxDispatcher outboxDispatcher;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(DomainEvent event) {
+        publishAll(List.of(event));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishAll(Collection<? extends DomainEvent> events) {
+        if (events.isEmpty() || !outboxDispatcher.isActive()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        outboxEventRepository.saveAll(events.stream()
+                .map(event -> toOutbox(event, now))
+                .collect(Collectors.toList()));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                outboxDispatcher.wakeUp();
+            }
+        });
+    }
+
+    private OutboxEvent toOutbox(DomainEvent event, LocalDateTime now) {
+        try {
+            return OutboxEvent.builder()
+                    .aggregateType(event.aggregateType())
+                    .aggregateId(event.aggregateId())
+                    .eventType(event.getClass().getSimpleName())
+                    .payload(objectMapper.writeValueAsString(event))
+                    .status(OutboxStatus.PENDING)
+                    .createdAt(now)
+                    .nextAttemptAt(now)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать событие " + event, e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.event;
+
+public record ItemUpdated(Long itemId, Long ownerId) implements DomainEvent {
+
+    @Override
+    public String aggregateType() {
+        return "item";
+    }
+
+    @Override
+    public Long aggregateId() {
+        return itemId;
+    }
+}
@@ -0,0 +1,271 @@
+package ru.practicum.shareit.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Фоновая рассылка событий из outbox потребителям {@link DomainEventConsumer}.
+ * <ul>
+ *     <li>события забираются пакетами не больше {@code batch-size}; следующий пакет читается только после
+ *     обработки текущего, так что медленные потребители тормозят рассылку, а не запросы - очередь копится
+ *     в таблице (метрика {@code shareit.outbox.pending});</li>
+ *     <li>после сбоя событие откладывается с экспоненциальной задержкой, более поздние события того же агрегата
+ *     ждут его; после {@code max-attempts} попыток событие помечается FAILED и агрегат разблокируется;</li>
+ *     <li>пакет выбирается под блокировкой строки outbox_dispatcher_lock в короткой транзакции, и срок следующей
+ *     попытки его событий сдвигается на {@code claim-timeout}: другие экземпляры их не выберут, а более поздние
+ *     события тех же агрегатов ждут. Доставка идёт вне транзакции, так что медленный или упавший потребитель
+ *     не держит соединение и блокировку и не откатывает учёт попыток; результат записывается отдельной
+ *     транзакцией. Если экземпляр остановился посреди пакета, события снова выбираются через
+ *     {@code claim-timeout}.</li>
+ * </ul>
+ * Поток просыпается по коммиту с новыми событиями или раз в {@code poll-interval}.
+ * Без потребителей или при {@code enabled=false} рассылка не запускается, и {@link DomainEventPublisher}
+ * не записывает события: доставлять их некому, а таблица росла бы без ограничений.
+ */
+@Slf4j
+@Component
+public class OutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxDispatcherLockRepository lockRepository;
+    private final ObjectProvider<DomainEventConsumer> consumers;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Duration retryDelay;
+    private final Duration maxRetryDelay;
+    private final int maxAttempts;
+    private final Duration claimTimeout;
+    private final Counter delivered;
+    private final Counter retried;
+    private final Counter failed;
+    private final Map<String, Class<? extends DomainEvent>> eventTypes;
+    private final Semaphore wakeUps = new Semaphore(0);
+    private volatile boolean running;
+    private Thread worker;
+
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository,
+                            OutboxDispatcherLockRepository lockRepository,
+                            ObjectProvider<DomainEventConsumer> consumers,
+                            ObjectMapper objectMapper,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${shareit.outbox.enabled:true}") boolean enabled,
+                            @Value("${shareit.outbox.batch-size:100}") int batchSize,
+                            @Value("${shareit.outbox.poll-interval:PT1S}") Duration pollInterval,
+                            @Value("${shareit.outbox.retry-delay:PT1S}") Duration retryDelay,
+                            @Value("${shareit.outbox.max-retry-delay:PT10M}") Duration maxRetryDelay,
+                            @Value("${shareit.outbox.max-attempts:10}") int maxAttempts,
+                            @Value("${shareit.outbox.claim-timeout:PT5M}") Duration claimTimeout) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.lockRepository = lockRepository;
+        this.consumers = consumers;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.retryDelay = retryDelay;
+        this.maxRetryDelay = maxRetryDelay;
+        this.maxAttempts = maxAttempts;
+        this.claimTimeout = claimTimeout;
+        this.delivered = eventCounter(meterRegistry, "delivered");
+        this.retried = eventCounter(meterRegistry, "retried");
+        this.failed = eventCounter(meterRegistry, "failed");
+        Gauge.builder("shareit.outbox.pending", () -> outboxEventRepository.countByStatus(OutboxStatus.PENDING))
+                .description("События outbox, ожидающие доставки")
+                .register(meterRegistry);
+        this.eventTypes = Arrays.stream(DomainEvent.class.getPermittedSubclasses())
+                .collect(Collectors.toMap(Class::getSimpleName, type -> type.asSubclass(DomainEvent.class)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        if (!isActive()) {
+            log.warn("Нет ни одного DomainEventConsumer: рассылка из outbox не запущена, события не записываются");
+            return;
+        }
+        running = true;
+        worker = new Thread(this::run, "outbox-dispatcher");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("Рассылка событий из outbox запущена, пакет {}, опрос раз в {}", batchSize, pollInterval);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            wakeUp();
+            worker.join(pollInterval.toMillis() * 2);
+        }
+    }
+
+    /**
+     * Будут ли события доставлены: рассылка включена и есть хотя бы один потребитель.
+     */
+    public boolean isActive() {
+        return enabled && consumers.stream().findAny().isPresent();
+    }
+
+    public void wakeUp() {
+        wakeUps.release();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                wakeUps.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                wakeUps.drainPermits();
+                while (running && dispatchBatch() == batchSize) {
+                    log.debug("Пакет outbox заполнен полностью, читается следующий");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Ошибка рассылки событий из outbox, повтор через {}", pollInterval, e);
+            }
+        }
+    }
+
+    /**
+     * Выбирает, доставляет и учитывает один пакет, возвращает число выбранных событий.
+     */
+    public int dispatchBatch() {
+        List<DomainEventConsumer> targets = consumers.orderedStream().toList();
+        if (targets.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime claimedAt = LocalDateTime.now();
+        List<OutboxEvent> batch = claim(claimedAt);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Set<String> blockedAggregates = new HashSet<>();
+        List<Long> done = new ArrayList<>();
+        List<OutboxEvent> postponed = new ArrayList<>();
+        List<Long> skipped = new ArrayList<>();
+        for (OutboxEvent event : batch) {
+            String aggregate = event.getAggregateType() + ":" + event.getAggregateId();
+            if (blockedAggregates.contains(aggregate)) {
+                skipped.add(event.getId());
+                continue;
+            }
+            try {
+                deliver(event, targets);
+                done.add(event.getId());
+            } catch (Exception e) {
+                blockedAggregates.add(aggregate);
+                postpone(event, e, LocalDateTime.now());
+                postponed.add(event);
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxEventRepository.deleteAllByIdInBatch(done);
+            for (OutboxEvent event : postponed) {
+                outboxEventRepository.reschedule(event.getId(), event.getAttempts(), event.getLastError(),
+                        event.getStatus(), event.getNextAttemptAt());
+            }
+            // Пропущенные события ждут отложенное событие своего агрегата, как если бы их не выбирали
+            if (!skipped.isEmpty()) {
+                outboxEventRepository.setNextAttemptAt(skipped, claimedAt);
+            }
+        });
+        delivered.increment(done.size());
+        return batch.size();
+    }
+
+    private List<OutboxEvent> claim(LocalDateTime now) {
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> {
+            OutboxDispatcherLock lock = lockRepository.findForUpdate(OutboxDispatcherLock.DISPATCHER)
+                    .orElseGet(() -> lockRepository.saveAndFlush(
+                            new OutboxDispatcherLock(OutboxDispatcherLock.DISPATCHER, null)));
+            List<OutboxEvent> selected = outboxEventRepository.findDispatchable(OutboxStatus.PENDING, now,
+                    PageRequest.of(0, batchSize));
+            if (!selected.isEmpty()) {
+                outboxEventRepository.setNextAttemptAt(
+                        selected.stream().map(OutboxEvent::getId).collect(Collectors.toList()), now.plus(claimTimeout));
+                lock.setDispatchedAt(now);
+            }
+            return selected;
+        });
+        return batch == null ? List.of() : batch;
+    }
+
+    private void deliver(OutboxEvent outboxEvent, List<DomainEventConsumer> targets) throws Exception {
+        Class<? extends DomainEvent> type = eventTypes.get(outboxEvent.getEventType());
+        if (type == null) {
+            throw new IllegalStateException("Неизвестный тип события: " + outboxEvent.getEventType());
+        }
+        DomainEvent event = objectMapper.readValue(outboxEvent.getPayload(), type);
+        for (DomainEventConsumer consumer : targets) {
+            consumer.handle(event);
+        }
+    }
+
+    private void postpone(OutboxEvent event, Exception error, LocalDateTime now) {
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        event.setLastError(truncate(error.toString()));
+        if (attempts >= maxAttempts) {
+            event.setStatus(OutboxStatus.FAILED);
+            failed.increment();
+            log.error("Событие {} id: {} не доставлено за {} попыток, агрегат {}:{} разблокирован",
+                    event.getEventType(), event.getId(), attempts, event.getAggregateType(), event.getAggregateId(), error);
+            return;
+        }
+        Duration delay = retryDelay.multipliedBy(1L << Math.min(attempts - 1, 30));
+        if (delay.compareTo(maxRetryDelay) > 0) {
+            delay = maxRetryDelay;
+        }
+        event.setNextAttemptAt(now.plus(delay));
+        retried.increment();
+        log.warn("Событие {} id: {} не доставлено (попытка {}), повтор через {}: {}",
+                event.getEventType(), event.getId(), attempts, delay, error.toString());
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private static Counter eventCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("shareit.outbox.events")
+                .description("События outbox по результату обработки")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
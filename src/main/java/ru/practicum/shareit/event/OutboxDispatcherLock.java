@@ -0,0 +1,29 @@
+package ru.practicum.shareit.event;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Строка, блокировка которой на время выбора пакета не даёт двум экземплярам приложения выбрать одни
+ * и те же события: иначе события одного агрегата могли бы быть доставлены дважды или не по порядку.
+ */
+@Entity
+@Table(name = "outbox_dispatcher_lock")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxDispatcherLock {
+
+    public static final String DISPATCHER = "outbox";
+
+    @Id
+    @Column(name = "name", length = 64)
+    private String name;
+
+    @Column(name = "dispatched_at")
+    private LocalDateTime dispatchedAt;
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.event;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface OutboxDispatcherLockRepository extends JpaRepository<OutboxDispatcherLock, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM OutboxDispatcherLock l WHERE l.name = :name")
+    Optional<OutboxDispatcherLock> findForUpdate(@Param("name") String name);
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.event;
+
+import jakarta.persistence.*;
+import lombok.*;
+import ru.practicum.shareit.persistence.PooledSequence;
+
+import java.time.LocalDateTime;
+
+/**
+ * Строка outbox. Доставленные события удаляются, в таблице остаются ожидающие и исчерпавшие попытки.
+ */
+@Entity
+@Table(name = "outbox_events")
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+    @Id
+    @PooledSequence(name = "outbox_seq")
+    private Long id;
+
+    @Column(name = "aggregate_type", nullable = false, length = 32)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Column(name = "event_type", nullable = false, length = 64)
+    private String eventType;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private OutboxStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.event;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Ожидающие события, срок которых наступил, в порядке записи. Событие не выбирается, пока более раннее
+     * событие того же агрегата ждёт повторной попытки, - так сохраняется порядок внутри агрегата.
+     */
+    @Query("SELECT e FROM OutboxEvent e WHERE e.status = :pending AND e.nextAttemptAt <= :now " +
+            "AND NOT EXISTS (SELECT p.id FROM OutboxEvent p WHERE p.status = :pending " +
+            "AND p.aggregateType = e.aggregateType AND p.aggregateId = e.aggregateId " +
+            "AND p.id < e.id AND p.nextAttemptAt > :now) " +
+            "ORDER BY e.id")
+    List<OutboxEvent> findDispatchable(@Param("pending") OutboxStatus pending,
+                                       @Param("now") LocalDateTime now,
+                                       Pageable pageable);
+
+    /**
+     * Сдвигает срок следующей попытки: при выборе пакета - чтобы события не выбрал другой экземпляр,
+     * пока идёт доставка, после неё - чтобы вернуть пропущенные события.
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.nextAttemptAt = :nextAttemptAt WHERE e.id IN :ids")
+    int setNextAttemptAt(@Param("ids") Collection<Long> ids, @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = :attempts, e.lastError = :lastError, e.status = :status, " +
+            "e.nextAttemptAt = :nextAttemptAt WHERE e.id = :id")
+    int reschedule(@Param("id") Long id,
+                   @Param("attempts") int attempts,
+                   @Param("lastError") String lastError,
+                   @Param("status") OutboxStatus status,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    long countByStatus(OutboxStatus status);
+}
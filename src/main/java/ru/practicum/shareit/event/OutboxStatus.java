@@ -0,0 +1,12 @@
+package ru.practicum.shareit.event;
+
+public enum OutboxStatus {
+    /**
+     * Ожидает доставки или повторной попытки.
+     */
+    PENDING,
+    /**
+     * Попытки исчерпаны; событие остаётся в таблице для разбора и не задерживает агрегат.
+     */
+    FAILED
+}
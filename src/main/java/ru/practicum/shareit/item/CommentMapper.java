@@ -32,7 +32,7 @@ public class CommentMapper {
             return null;
         }
 
-        User author = userRepository.findById(authorId)
+        User author = userRepository.findCachedById(authorId)
                 .orElseThrow(() -> new RuntimeException("Пользователь не найден"));
 
         return Comment.builder()
@@ -1,9 +1,40 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByItemId(Long itemId);
-}
\ No newline at end of file
+
+    long countByItemId(Long itemId);
+
+    @Query("SELECT MAX(c.created) FROM Comment c WHERE c.item.id = :itemId")
+    LocalDateTime findLastCreatedByItemId(@Param("itemId") Long itemId);
+
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.item.id = :itemId " +
+            "ORDER BY c.created DESC, c.id DESC")
+    List<Comment> findByItemIdWithAuthor(@Param("itemId") Long itemId, Pageable pageable);
+
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.item.id = :itemId " +
+            "AND (c.created < :cursorCreated OR (c.created = :cursorCreated AND c.id < :cursorId)) " +
+            "ORDER BY c.created DESC, c.id DESC")
+    List<Comment> findByItemIdWithAuthorAfterCursor(@Param("itemId") Long itemId,
+                                                    @Param("cursorCreated") LocalDateTime cursorCreated,
+                                                    @Param("cursorId") Long cursorId,
+                                                    Pageable pageable);
+
+    /**
+     * Не больше {@code previewSize} последних комментариев каждой вещи одним запросом по индексу (item_id, created DESC).
+     * Авторы не подгружаются: их имена вызывающий код загружает отдельным запросом.
+     */
+    @Query(value = "SELECT t.id, t.text, t.item_id, t.author_id, t.created FROM (" +
+            "SELECT c.*, ROW_NUMBER() OVER (PARTITION BY c.item_id ORDER BY c.created DESC, c.id DESC) AS rn " +
+            "FROM comments c WHERE c.item_id IN (:itemIds)) t " +
+            "WHERE t.rn <= :previewSize ORDER BY t.item_id, t.created DESC, t.id DESC", nativeQuery = true)
+    List<Comment> findLatestByItemIds(@Param("itemIds") Collection<Long> itemIds, @Param("previewSize") int previewSize);
+}
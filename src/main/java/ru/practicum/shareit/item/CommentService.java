@@ -1,7 +1,12 @@
 package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.pagination.KeysetCursor;
+
+import java.util.List;
 
 public interface CommentService {
     CommentDto createComment(Long itemId, Long userId, CommentDto commentDto);
+
+    List<CommentDto> getComments(Long itemId, KeysetCursor cursor, int size);
 }
@@ -2,20 +2,29 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.cache.ResponseCache;
+import ru.practicum.shareit.event.CommentAdded;
+import ru.practicum.shareit.event.DomainEventPublisher;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -27,6 +36,12 @@ public class CommentServiceImpl implements CommentService {
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final CommentMapper commentMapper;
+    private final ResponseCache responseCache;
+    private final ItemStatsUpdater itemStatsUpdater;
+    private final DomainEventPublisher eventPublisher;
+
+    @Value("${shareit.items.comments.page.max-size:100}")
+    private int maxPageSize;
 
     @Override
     @Transactional
@@ -60,7 +75,30 @@ public class CommentServiceImpl implements CommentService {
 
         Comment savedComment = commentRepository.save(comment);
         log.info("Comment created with id: {}", savedComment.getId());
+        itemStatsUpdater.commentAdded(itemId, savedComment.getCreated());
+        responseCache.evictItem(itemId);
+        eventPublisher.publish(new CommentAdded(savedComment.getId(), itemId, userId));
 
         return commentMapper.toDto(savedComment);
     }
-}
\ No newline at end of file
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CommentDto> getComments(Long itemId, KeysetCursor cursor, int size) {
+        log.info("Получение комментариев вещи id: {}", itemId);
+        if (size > maxPageSize) {
+            throw new ValidationException("Размер страницы не может быть больше " + maxPageSize);
+        }
+        if (itemRepository.findCachedById(itemId).isEmpty()) {
+            throw new NotFoundException("Вещь не найдена с id: " + itemId);
+        }
+
+        Pageable pageable = PageRequest.of(0, size);
+        List<Comment> comments = cursor == null
+                ? commentRepository.findByItemIdWithAuthor(itemId, pageable)
+                : commentRepository.findByItemIdWithAuthorAfterCursor(itemId, cursor.timestamp(), cursor.id(), pageable);
+        return comments.stream()
+                .map(commentMapper::toDto)
+                .collect(Collectors.toList());
+    }
+}
@@ -5,11 +5,22 @@ import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityService;
+import ru.practicum.shareit.booking.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.cache.CachedResponse;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportReportDto;
+import ru.practicum.shareit.pagination.KeysetCursor;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Slf4j
@@ -20,6 +31,8 @@ public class ItemController {
 
     private final ItemService itemService;
     private final CommentService commentService;
+    private final ItemAvailabilityService itemAvailabilityService;
+    private final ItemImportService itemImportService;
 
     @PostMapping
     public ItemDto createItem(@RequestHeader("X-Sharer-User-Id") Long userId,
@@ -28,6 +41,23 @@ public class ItemController {
         return itemService.createItem(userId, itemDto);
     }
 
+    @PostMapping(path = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ItemImportReportDto importItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                           InputStream body) {
+        log.info("POST /items/import - импорт вещей пользователем id: {}", userId);
+        return itemImportService.importItems(userId, body);
+    }
+
+    @PostMapping(path = "/import", params = "progress=true",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> importItemsWithProgress(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                         InputStream body) {
+        log.info("POST /items/import?progress=true - импорт вещей с прогрессом пользователем id: {}", userId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(itemImportService.importItemsWithProgress(userId, body));
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto updateItem(@RequestHeader("X-Sharer-User-Id") Long userId,
                               @PathVariable Long itemId,
@@ -37,10 +67,22 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ItemDto getItemById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                               @PathVariable Long itemId) {
+    public ResponseEntity<ItemDto> getItemById(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                               @PathVariable Long itemId) {
         log.info("GET /items/{} - получение вещи id пользователем id: {}", itemId, userId);
-        return itemService.getItemById(itemId, userId);
+        // При совпадении If-None-Match со значением ETag Spring отвечает 304 без тела
+        CachedResponse<ItemDto> response = itemService.getItemResponse(itemId, userId);
+        return ResponseEntity.ok().eTag(response.etag()).body(response.body());
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getItemAvailability(@PathVariable Long itemId,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                   LocalDateTime from,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                   LocalDateTime to) {
+        log.info("GET /items/{}/availability?from={}&to={} - свободные интервалы вещи", itemId, from, to);
+        return itemAvailabilityService.getAvailability(itemId, from, to);
     }
 
     @GetMapping
@@ -61,6 +103,23 @@ public class ItemController {
         return itemService.searchItems(text, from, size);
     }
 
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<List<CommentDto>> getComments(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                        @PathVariable Long itemId,
+                                                        @RequestParam(defaultValue = "10") @Positive int size,
+                                                        @RequestParam(required = false) String cursor) {
+        log.info("GET /items/{}/comments - получение комментариев пользователем id: {}", itemId, userId);
+        List<CommentDto> comments = commentService.getComments(itemId,
+                cursor == null ? null : KeysetCursor.decode(cursor), size);
+        if (comments.size() < size) {
+            return ResponseEntity.ok(comments);
+        }
+        CommentDto last = comments.get(comments.size() - 1);
+        return ResponseEntity.ok()
+                .header(KeysetCursor.NEXT_CURSOR_HEADER, new KeysetCursor(last.getCreated(), last.getId()).encode())
+                .body(comments);
+    }
+
     @PostMapping("/{itemId}/comment")
     @ResponseStatus(HttpStatus.CREATED)
     public CommentDto addComment(@RequestHeader("X-Sharer-User-Id") Long userId,
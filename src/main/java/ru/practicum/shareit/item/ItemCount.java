@@ -0,0 +1,4 @@
+package ru.practicum.shareit.item;
+
+public record ItemCount(Long itemId, Long count) {
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.item.dto.ItemImportReportDto;
+
+import java.io.InputStream;
+
+public interface ItemImportService {
+
+    ItemImportReportDto importItems(Long userId, InputStream body);
+
+    /**
+     * Тот же импорт, но ответ - NDJSON: после каждого пакета строка {@code ItemImportProgressDto},
+     * последней строкой итоговый {@code ItemImportReportDto} с ошибками.
+     */
+    StreamingResponseBody importItemsWithProgress(Long userId, InputStream body);
+}
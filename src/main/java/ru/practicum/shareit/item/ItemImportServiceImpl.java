@@ -0,0 +1,256 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportProgressDto;
+import ru.practicum.shareit.item.dto.ItemImportReportDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Потоковый импорт вещей из NDJSON или JSON-массива. Тело разбирается по одному элементу,
+ * вещи сохраняются пакетами, каждый пакет в своей транзакции, так что память не растёт с размером файла.
+ * Ошибки отчёта указывают номер элемента (с нуля) и строку, на которой он начинается: у однострочного
+ * JSON-массива строка у всех элементов одна.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemImportServiceImpl implements ItemImportService {
+
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemMapper itemMapper;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemStatsUpdater itemStatsUpdater;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${shareit.items.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${shareit.items.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    @Override
+    public ItemImportReportDto importItems(Long userId, InputStream body) {
+        log.info("Импорт вещей для пользователя id: {}", userId);
+        checkOwner(userId);
+        return doImport(userId, body, progress -> {
+        });
+    }
+
+    @Override
+    public StreamingResponseBody importItemsWithProgress(Long userId, InputStream body) {
+        log.info("Импорт вещей с прогрессом для пользователя id: {}", userId);
+        checkOwner(userId);
+        return out -> {
+            try (SequenceWriter writer = objectMapper.writer()
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .withRootValueSeparator("\n")
+                    .writeValues(out)) {
+                ItemImportReportDto report = doImport(userId, body, progress -> {
+                    try {
+                        writer.write(progress);
+                        writer.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                writer.write(report);
+            }
+            out.write('\n');
+            out.flush();
+        };
+    }
+
+    private void checkOwner(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("Пользователь с ID " + userId + " не найден");
+        }
+    }
+
+    private ItemImportReportDto doImport(Long userId, InputStream body, Consumer<ItemImportProgressDto> progress) {
+        Report report = new Report();
+        Batch batch = new Batch();
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            // Первый токен определяет формат: массив или последовательность объектов верхнего уровня (NDJSON)
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+
+            while (token != null && token != JsonToken.END_ARRAY) {
+                long index = report.processed;
+                long line = parser.currentTokenLocation().getLineNr();
+                JsonNode node = parser.readValueAsTree();
+                report.processed++;
+                try {
+                    ItemDto itemDto = objectMapper.treeToValue(node, ItemDto.class);
+                    ItemServiceImpl.validateItemDto(itemDto);
+                    Item item = itemMapper.toEntity(itemDto);
+                    item.setId(null);
+                    item.setOwnerId(userId);
+                    batch.add(index, line, item);
+                } catch (JsonProcessingException e) {
+                    report.fail(index, line, "Некорректная вещь: " + e.getOriginalMessage());
+                } catch (ValidationException e) {
+                    report.fail(index, line, e.getMessage());
+                }
+
+                if (batch.size() >= batchSize) {
+                    flush(batch, report);
+                    progress.accept(report.progress());
+                }
+                token = parser.nextToken();
+            }
+        } catch (JsonProcessingException e) {
+            // После синтаксической ошибки продолжить разбор нельзя, уже разобранное сохраняется
+            report.fail(report.processed, e.getLocation() == null ? 0 : e.getLocation().getLineNr(),
+                    "Ошибка разбора JSON: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            flush(batch, report);
+        }
+
+        log.info("Импорт вещей для пользователя id: {} завершён: обработано {}, импортировано {}, ошибок {}",
+                userId, report.processed, report.imported, report.failed);
+        return new ItemImportReportDto(report.processed, report.imported, report.failed, report.errors);
+    }
+
+    private void flush(Batch batch, Report report) {
+        rejectUnknownRequests(batch, report);
+        if (batch.size() == 0) {
+            return;
+        }
+        try {
+            List<Item> saved = transactionTemplate.execute(status -> {
+                List<Item> items = itemRepository.saveAll(batch.items);
+                itemStatsUpdater.itemsCreated(items.stream().map(Item::getId).collect(Collectors.toList()));
+                return items;
+            });
+            // При open-in-view пакеты пишутся через общий EntityManager запроса: без очистки сохранённые
+            // сущности остаются в нём до конца импорта, и каждый следующий flush проверяет их все
+            entityManager.clear();
+            saved.forEach(itemSearchEngine::index);
+            report.imported += saved.size();
+            log.info("Импортировано вещей: {}", report.imported);
+        } catch (DataAccessException e) {
+            log.warn("Не удалось сохранить пакет из {} вещей", batch.size(), e);
+            for (int i = 0; i < batch.size(); i++) {
+                report.fail(batch.indexes.get(i), batch.lines.get(i), "Не удалось сохранить вещь");
+            }
+        }
+        batch.clear();
+    }
+
+    private final class Report {
+        private final List<ItemImportReportDto.LineError> errors = new ArrayList<>();
+        private long processed;
+        private long imported;
+        private long failed;
+
+        private void fail(long index, long line, String error) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ItemImportReportDto.LineError(index, line, error));
+            }
+        }
+
+        private ItemImportProgressDto progress() {
+            return new ItemImportProgressDto(processed, imported, failed);
+        }
+    }
+
+    /**
+     * Та же проверка requestId, что и в {@code createItem}, но одним запросом на пакет:
+     * вещи со ссылкой на несуществующий запрос уходят в ошибки и не сохраняются.
+     */
+    private void rejectUnknownRequests(Batch batch, Report report) {
+        Set<Long> requestIds = batch.items.stream()
+                .map(Item::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (requestIds.isEmpty()) {
+            return;
+        }
+        Set<Long> existing = itemRequestRepository.findAllById(requestIds).stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toSet());
+        if (existing.size() == requestIds.size()) {
+            return;
+        }
+        Batch accepted = new Batch();
+        for (int i = 0; i < batch.size(); i++) {
+            Item item = batch.items.get(i);
+            if (item.getRequestId() != null && !existing.contains(item.getRequestId())) {
+                report.fail(batch.indexes.get(i), batch.lines.get(i),
+                        "Запрос вещи не найден с id: " + item.getRequestId());
+            } else {
+                accepted.add(batch.indexes.get(i), batch.lines.get(i), item);
+            }
+        }
+        batch.clear();
+        for (int i = 0; i < accepted.size(); i++) {
+            batch.add(accepted.indexes.get(i), accepted.lines.get(i), accepted.items.get(i));
+        }
+    }
+
+    private static final class Batch {
+        private final List<Long> indexes = new ArrayList<>();
+        private final List<Long> lines = new ArrayList<>();
+        private final List<Item> items = new ArrayList<>();
+
+        private void add(long index, long line, Item item) {
+            indexes.add(index);
+            lines.add(line);
+            items.add(item);
+        }
+
+        private int size() {
+            return items.size();
+        }
+
+        private void clear() {
+            indexes.clear();
+            lines.clear();
+            items.clear();
+        }
+    }
+}
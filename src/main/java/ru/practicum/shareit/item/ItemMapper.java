@@ -1,17 +1,27 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemStats;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Component
@@ -21,6 +31,11 @@ public class ItemMapper {
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final CommentMapper commentMapper;
+    private final UserRepository userRepository;
+    private final ItemStatsRepository itemStatsRepository;
+
+    @Value("${shareit.items.comments.preview-size:10}")
+    private int commentPreviewSize;
 
     public ItemDto toDto(Item item, Long userId) {
         if (item == null) {
@@ -33,11 +48,12 @@ public class ItemMapper {
         if (userId != null && userId.equals(item.getOwnerId())) {
             LocalDateTime now = LocalDateTime.now();
 
-            Optional<ru.practicum.shareit.booking.Booking> lastBookingOpt =
-                    bookingRepository.findLastBookingForItem(item.getId(), now);
+            Optional<Booking> lastBookingOpt =
+                    bookingRepository.findFirstByItemIdAndStatusAndStartBeforeOrderByStartDesc(
+                            item.getId(), BookingStatus.APPROVED, now);
 
             if (lastBookingOpt.isPresent()) {
-                ru.practicum.shareit.booking.Booking last = lastBookingOpt.get();
+                Booking last = lastBookingOpt.get();
                 lastBooking = new BookingShortDto(
                         last.getId(),
                         last.getBookerId(),
@@ -46,11 +62,12 @@ public class ItemMapper {
                 );
             }
 
-            Optional<ru.practicum.shareit.booking.Booking> nextBookingOpt =
-                    bookingRepository.findNextBookingForItem(item.getId(), now);
+            Optional<Booking> nextBookingOpt =
+                    bookingRepository.findFirstByItemIdAndStatusAndStartAfterOrderByStartAsc(
+                            item.getId(), BookingStatus.APPROVED, now);
 
             if (nextBookingOpt.isPresent()) {
-                ru.practicum.shareit.booking.Booking next = nextBookingOpt.get();
+                Booking next = nextBookingOpt.get();
                 nextBooking = new BookingShortDto(
                         next.getId(),
                         next.getBookerId(),
@@ -60,10 +77,12 @@ public class ItemMapper {
             }
         }
 
-        List<CommentDto> comments = commentRepository.findByItemId(item.getId())
+        List<CommentDto> comments = commentRepository.findByItemIdWithAuthor(item.getId(),
+                        PageRequest.of(0, commentPreviewSize))
                 .stream()
                 .map(commentMapper::toDto)
                 .collect(Collectors.toList());
+        ItemStats stats = itemStatsRepository.findById(item.getId()).orElseGet(() -> ItemStats.empty(item.getId()));
 
         return ItemDto.builder()
                 .id(item.getId())
@@ -75,6 +94,9 @@ public class ItemMapper {
                 .lastBooking(lastBooking)
                 .nextBooking(nextBooking)
                 .comments(comments)
+                .commentCount(stats.getCommentCount())
+                .lastCommentAt(stats.getLastCommentAt())
+                .completedBookings(stats.getCompletedBookings())
                 .build();
     }
 
@@ -82,6 +104,93 @@ public class ItemMapper {
         return toDto(item, null);
     }
 
+    /**
+     * Пакетное преобразование страницы вещей: последние/следующие бронирования всех вещей
+     * загружаются одним запросом, последние комментарии, имена их авторов и счётчики из item_stats — ещё тремя.
+     */
+    public List<ItemDto> toDto(List<Item> items, Long userId) {
+        if (items == null || items.isEmpty()) {
+            return List.of();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Long> ownedItemIds = items.stream()
+                .filter(item -> userId != null && userId.equals(item.getOwnerId()))
+                .map(Item::getId)
+                .collect(Collectors.toList());
+
+        Map<Long, BookingShortDto> lastBookings = new HashMap<>();
+        Map<Long, BookingShortDto> nextBookings = new HashMap<>();
+
+        if (!ownedItemIds.isEmpty()) {
+            for (Booking booking : bookingRepository.findLastAndNextBookingsForItems(ownedItemIds, now)) {
+                if (booking.getStart().isBefore(now)) {
+                    lastBookings.put(booking.getItemId(), toBookingShortDto(booking));
+                } else {
+                    nextBookings.put(booking.getItemId(), toBookingShortDto(booking));
+                }
+            }
+        }
+
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+
+        Map<Long, List<CommentDto>> comments = latestComments(itemIds);
+        Map<Long, ItemStats> stats = itemStatsRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(ItemStats::getItemId, Function.identity()));
+
+        return items.stream()
+                .map(item -> {
+                    ItemStats itemStats = stats.getOrDefault(item.getId(), ItemStats.empty(item.getId()));
+                    return ItemDto.builder()
+                            .id(item.getId())
+                            .name(item.getName())
+                            .description(item.getDescription())
+                            .available(item.getAvailable())
+                            .ownerId(item.getOwnerId())
+                            .requestId(item.getRequestId())
+                            .lastBooking(lastBookings.get(item.getId()))
+                            .nextBooking(nextBookings.get(item.getId()))
+                            .comments(comments.getOrDefault(item.getId(), List.of()))
+                            .commentCount(itemStats.getCommentCount())
+                            .lastCommentAt(itemStats.getLastCommentAt())
+                            .completedBookings(itemStats.getCompletedBookings())
+                            .build();
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Авторы не инициализируются через ленивые ссылки комментариев: имена загружаются одним запросом по id.
+     */
+    private Map<Long, List<CommentDto>> latestComments(List<Long> itemIds) {
+        List<Comment> latest = commentRepository.findLatestByItemIds(itemIds, commentPreviewSize);
+        Map<Long, String> authorNames = userRepository.findAllById(latest.stream()
+                        .map(comment -> comment.getAuthor().getId())
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(User::getId, User::getName));
+
+        return latest.stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(comment -> CommentDto.builder()
+                                .id(comment.getId())
+                                .text(comment.getText())
+                                .authorName(authorNames.get(comment.getAuthor().getId()))
+                                .created(comment.getCreated())
+                                .build(), Collectors.toList())));
+    }
+
+    private BookingShortDto toBookingShortDto(Booking booking) {
+        return new BookingShortDto(
+                booking.getId(),
+                booking.getBookerId(),
+                booking.getStart(),
+                booking.getEnd()
+        );
+    }
+
     public Item toEntity(ItemDto itemDto) {
         if (itemDto == null) {
             return null;
@@ -1,23 +1,63 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.cache.annotation.Cacheable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.persistence.PrimaryRead;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
 
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    String ITEMS_CACHE = "items";
+
+    /**
+     * Чтение вещи через кэш; изменяющие операции должны читать через findById.
+     */
+    @PrimaryRead
+    @Cacheable(cacheNames = ITEMS_CACHE, key = "#id", unless = "#result == null")
+    @Query("SELECT i FROM Item i WHERE i.id = :id")
+    Optional<Item> findCachedById(@Param("id") Long id);
+
+    /**
+     * Блокирует строку вещи до конца транзакции, сериализуя подтверждения бронирований одной вещи.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id = :id")
+    Optional<Item> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Блокирует строки вещей в порядке id, чтобы параллельные пакеты не взаимоблокировались.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id IN :ids ORDER BY i.id")
+    List<Item> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
 
     List<Item> findByOwnerId(Long ownerId, Pageable pageable);
 
-    @Query("SELECT i FROM Item i " +
-            "WHERE (LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) " +
-            "OR LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%'))) " +
-            "AND i.available = true")
-    List<Item> searchItems(@Param("text") String text, Pageable pageable);
+    /**
+     * Ответы сразу на все запросы страницы одним запросом по индексу items.request_id.
+     */
+    @Query("SELECT new ru.practicum.shareit.request.dto.ItemAnswerDto(i.id, i.name, i.ownerId, i.requestId) " +
+            "FROM Item i WHERE i.requestId IN :requestIds ORDER BY i.requestId, i.id")
+    List<ItemAnswerDto> findAnswersByRequestIds(@Param("requestIds") Collection<Long> requestIds);
+
+    @Query(value = "SELECT i.id FROM items i " +
+            "WHERE i.is_available = TRUE " +
+            "AND (LOWER(i.name) LIKE CONCAT('%', LOWER(:text), '%') " +
+            "OR LOWER(i.description) LIKE CONCAT('%', LOWER(:text), '%')) " +
+            "ORDER BY CASE WHEN LOWER(i.name) LIKE CONCAT('%', LOWER(:text), '%') THEN 0 ELSE 1 END, " +
+            "GREATEST(similarity(LOWER(i.name), LOWER(:text)), similarity(LOWER(i.description), LOWER(:text))) DESC, " +
+            "i.id", nativeQuery = true)
+    List<Long> searchAvailableItemIds(@Param("text") String text, Pageable pageable);
 }
\ No newline at end of file
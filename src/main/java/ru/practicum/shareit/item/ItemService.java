@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item;
 
+import ru.practicum.shareit.cache.CachedResponse;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import java.util.List;
@@ -12,6 +13,8 @@ public interface ItemService {
 
     ItemDto getItemById(Long itemId, Long userId);
 
+    CachedResponse<ItemDto> getItemResponse(Long itemId, Long userId);
+
     List<ItemDto> getAllItemsByOwner(Long ownerId, int from, int size);
 
     List<ItemDto> searchItems(String text, int from, int size);
@@ -2,21 +2,31 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.cache.CachedResponse;
+import ru.practicum.shareit.cache.ResponseCache;
+import ru.practicum.shareit.event.DomainEventPublisher;
+import ru.practicum.shareit.event.ItemUpdated;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -31,6 +41,11 @@ public class ItemServiceImpl implements ItemService {
     private final CommentRepository commentRepository;
     private final CommentMapper commentMapper;
     private final BookingRepository bookingRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ResponseCache responseCache;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemStatsUpdater itemStatsUpdater;
+    private final DomainEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -39,9 +54,14 @@ public class ItemServiceImpl implements ItemService {
 
         validateUserExists(userId);
         validateItemDto(itemDto);
+        if (itemDto.getRequestId() != null && !itemRequestRepository.existsById(itemDto.getRequestId())) {
+            throw new NotFoundException("Запрос вещи не найден с id: " + itemDto.getRequestId());
+        }
 
         Item item = createItemEntity(itemDto, userId);
         Item savedItem = itemRepository.save(item);
+        itemStatsUpdater.itemsCreated(List.of(savedItem.getId()));
+        itemSearchEngine.index(savedItem);
 
         log.info("Вещь создана с id: {}", savedItem.getId());
         return itemMapper.toDto(savedItem, userId);
@@ -55,6 +75,7 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = ItemRepository.ITEMS_CACHE, key = "#itemId")
     public ItemDto updateItem(Long userId, Long itemId, ItemDto itemDto) {
         log.info("Обновление вещи id: {} пользователем id: {}", itemId, userId);
 
@@ -63,6 +84,9 @@ public class ItemServiceImpl implements ItemService {
 
         updateItemFields(existingItem, itemDto);
         Item updatedItem = itemRepository.save(existingItem);
+        itemSearchEngine.index(updatedItem);
+        responseCache.evictItem(itemId);
+        eventPublisher.publish(new ItemUpdated(itemId, updatedItem.getOwnerId()));
 
         log.info("Вещь id: {} успешно обновлена", itemId);
         return itemMapper.toDto(updatedItem, userId);
@@ -94,6 +118,19 @@ public class ItemServiceImpl implements ItemService {
         return itemDto;
     }
 
+    @Override
+    public CachedResponse<ItemDto> getItemResponse(Long itemId, Long userId) {
+        Item item = itemRepository.findCachedById(itemId).orElseThrow(() -> {
+            log.error("Вещь не найдена с id: {}", itemId);
+            return new NotFoundException("Item not found");
+        });
+        boolean owner = item.getOwnerId().equals(userId);
+
+        // Когда начинается следующее бронирование, оно становится последним, и ответ устаревает
+        return responseCache.get(ResponseCache.itemKey(itemId, owner), () -> getItemById(itemId, userId),
+                itemDto -> itemDto.getNextBooking() == null ? null : itemDto.getNextBooking().getStart());
+    }
+
     @Override
     public List<ItemDto> getAllItemsByOwner(Long ownerId, int from, int size) {
         log.info("Получение всех вещей владельца id: {} (from={}, size={})", ownerId, from, size);
@@ -104,7 +141,7 @@ public class ItemServiceImpl implements ItemService {
         List<Item> items = itemRepository.findByOwnerId(ownerId, pageable);
         log.debug("Найдено {} вещей для владельца id: {}", items.size(), ownerId);
 
-        return items.stream().map(item -> itemMapper.toDto(item, ownerId)).collect(Collectors.toList());
+        return itemMapper.toDto(items, ownerId);
     }
 
     @Override
@@ -119,13 +156,19 @@ public class ItemServiceImpl implements ItemService {
         validatePagination(from, size);
         Pageable pageable = createPageRequest(from, size);
 
-        List<Item> items = itemRepository.searchItems(text, pageable);
+        List<Long> itemIds = itemSearchEngine.search(text, pageable);
+        Map<Long, Item> itemsById = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        List<Item> items = itemIds.stream()
+                .map(itemsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
         log.debug("Найдено {} вещей по запросу: '{}'", items.size(), text);
 
-        return items.stream().map(item -> itemMapper.toDto(item, null)).collect(Collectors.toList());
+        return itemMapper.toDto(items, null);
     }
 
-    private void validateItemDto(ItemDto itemDto) {
+    static void validateItemDto(ItemDto itemDto) {
         if (itemDto.getName() == null || itemDto.getName().isBlank()) {
             throw new ValidationException("Название вещи не может быть пустым");
         }
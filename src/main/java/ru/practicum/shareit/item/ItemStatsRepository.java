@@ -0,0 +1,41 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.model.ItemStats;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ItemStatsRepository extends JpaRepository<ItemStats, Long> {
+
+    /**
+     * Атомарное приращение в базе, без чтения строки: параллельные отзывы не теряют обновлений.
+     */
+    @Modifying
+    @Query("UPDATE ItemStats s SET s.commentCount = s.commentCount + 1, " +
+            "s.lastCommentAt = CASE WHEN s.lastCommentAt IS NULL OR s.lastCommentAt < :created " +
+            "THEN :created ELSE s.lastCommentAt END " +
+            "WHERE s.itemId = :itemId")
+    int addComment(@Param("itemId") Long itemId, @Param("created") LocalDateTime created);
+
+    @Modifying
+    @Query("UPDATE ItemStats s SET s.completedBookings = s.completedBookings + :count WHERE s.itemId = :itemId")
+    int addCompletedBookings(@Param("itemId") Long itemId, @Param("count") long count);
+
+    @Query("SELECT new ru.practicum.shareit.item.ItemCount(b.itemId, COUNT(b)) FROM Booking b " +
+            "WHERE b.status = :status AND b.end > :from AND b.end <= :to GROUP BY b.itemId")
+    List<ItemCount> countBookingsEndedBetween(@Param("status") BookingStatus status,
+                                              @Param("from") LocalDateTime from,
+                                              @Param("to") LocalDateTime to);
+
+    @Query("SELECT COUNT(b) FROM Booking b WHERE b.itemId = :itemId AND b.status = :status AND b.end <= :until")
+    long countBookingsEndedUntil(@Param("itemId") Long itemId,
+                                 @Param("status") BookingStatus status,
+                                 @Param("until") LocalDateTime until);
+}
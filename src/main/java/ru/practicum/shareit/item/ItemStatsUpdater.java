@@ -0,0 +1,121 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.cache.ResponseCache;
+import ru.practicum.shareit.item.model.ItemStats;
+import ru.practicum.shareit.item.model.ItemStatsWatermark;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Инкрементальное обновление item_stats. Отзывы учитываются в транзакции создания отзыва,
+ * завершившиеся бронирования - периодическим пересчётом окна (processed_until, now], а подтверждённые
+ * уже после того, как пересчёт прошёл их дату окончания, - в транзакции подтверждения.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemStatsUpdater {
+
+    /**
+     * Начало отсчёта для базы без отметки: все завершённые бронирования ещё не учтены.
+     */
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final ItemStatsRepository itemStatsRepository;
+    private final ItemStatsWatermarkRepository watermarkRepository;
+    private final CommentRepository commentRepository;
+    private final ResponseCache responseCache;
+
+    /**
+     * Вызывается в транзакции создания вещей.
+     */
+    public void itemsCreated(Collection<Long> itemIds) {
+        itemStatsRepository.saveAll(itemIds.stream().map(ItemStats::empty).collect(Collectors.toList()));
+    }
+
+    /**
+     * Вызывается в транзакции создания отзыва.
+     */
+    public void commentAdded(Long itemId, LocalDateTime created) {
+        if (itemStatsRepository.addComment(itemId, created) == 0) {
+            log.warn("Нет строки item_stats для вещи id: {}, строка пересчитана", itemId);
+            // Бронирования после отметки добавит очередной пересчёт окна
+            LocalDateTime processedUntil = watermarkRepository.findById(ItemStatsWatermark.COMPLETED_BOOKINGS)
+                    .map(ItemStatsWatermark::getProcessedUntil)
+                    .orElse(EPOCH);
+            rebuild(itemId, processedUntil);
+        }
+    }
+
+    /**
+     * Вызывается в транзакции подтверждения бронирований, после их сохранения. Бронирование, закончившееся
+     * до отметки, пересчёт уже не увидит, поэтому оно учитывается здесь. Остальные учтёт пересчёт:
+     * блокировка отметки держится до коммита подтверждения, и пересчёт, дождавшись её, видит новый статус.
+     */
+    public void bookingsApproved(Collection<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        LocalDateTime processedUntil = watermarkRepository.findForShare(ItemStatsWatermark.COMPLETED_BOOKINGS)
+                .map(ItemStatsWatermark::getProcessedUntil)
+                .orElse(EPOCH);
+        Map<Long, Long> completed = bookings.stream()
+                .filter(booking -> !booking.getEnd().isAfter(processedUntil))
+                .collect(Collectors.groupingBy(Booking::getItemId, Collectors.counting()));
+        completed.forEach((itemId, count) -> {
+            if (itemStatsRepository.addCompletedBookings(itemId, count) == 0) {
+                log.warn("Нет строки item_stats для вещи id: {}, строка пересчитана", itemId);
+                rebuild(itemId, processedUntil);
+            }
+        });
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${shareit.items.stats.refresh-interval:PT1M}")
+    public void countCompletedBookings() {
+        ItemStatsWatermark watermark = watermarkRepository.findForUpdate(ItemStatsWatermark.COMPLETED_BOOKINGS)
+                .orElseGet(() -> new ItemStatsWatermark(ItemStatsWatermark.COMPLETED_BOOKINGS, EPOCH));
+        LocalDateTime now = LocalDateTime.now();
+
+        List<ItemCount> completed = itemStatsRepository.countBookingsEndedBetween(
+                BookingStatus.APPROVED, watermark.getProcessedUntil(), now);
+        for (ItemCount count : completed) {
+            if (itemStatsRepository.addCompletedBookings(count.itemId(), count.count()) == 0) {
+                log.warn("Нет строки item_stats для вещи id: {}, строка пересчитана", count.itemId());
+                rebuild(count.itemId(), now);
+            }
+            responseCache.evictItem(count.itemId());
+        }
+
+        watermark.setProcessedUntil(now);
+        watermarkRepository.save(watermark);
+        if (!completed.isEmpty()) {
+            log.info("Учтены завершённые бронирования для {} вещей до {}", completed.size(), now);
+        }
+    }
+
+    /**
+     * Восстанавливает потерянную строку целиком по таблицам отзывов и бронирований:
+     * приращение к пустой строке дало бы только текущее изменение.
+     */
+    private void rebuild(Long itemId, LocalDateTime bookingsEndedUntil) {
+        itemStatsRepository.save(ItemStats.builder()
+                .itemId(itemId)
+                .commentCount(commentRepository.countByItemId(itemId))
+                .lastCommentAt(commentRepository.findLastCreatedByItemId(itemId))
+                .completedBookings(itemStatsRepository.countBookingsEndedUntil(
+                        itemId, BookingStatus.APPROVED, bookingsEndedUntil))
+                .build());
+    }
+}
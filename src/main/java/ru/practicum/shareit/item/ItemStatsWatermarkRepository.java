@@ -0,0 +1,29 @@
+package ru.practicum.shareit.item;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.model.ItemStatsWatermark;
+
+import java.util.Optional;
+
+@Repository
+public interface ItemStatsWatermarkRepository extends JpaRepository<ItemStatsWatermark, String> {
+
+    /**
+     * Блокировка строки сериализует пересчёт между экземплярами приложения.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM ItemStatsWatermark w WHERE w.name = :name")
+    Optional<ItemStatsWatermark> findForUpdate(@Param("name") String name);
+
+    /**
+     * Разделяемая блокировка: подтверждения бронирований не мешают друг другу, но пересчёт ждёт их коммита.
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT w FROM ItemStatsWatermark w WHERE w.name = :name")
+    Optional<ItemStatsWatermark> findForShare(@Param("name") String name);
+}
@@ -8,6 +8,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
@@ -30,10 +31,16 @@ public class ItemDto {
     private Long requestId;
     private BookingShortDto lastBooking;
     private BookingShortDto nextBooking;
+    /**
+     * Последние комментарии, не больше shareit.items.comments.preview-size; остальные - через /items/{id}/comments.
+     */
     private List<CommentDto> comments;
+    private Long commentCount;
+    private LocalDateTime lastCommentAt;
+    private Long completedBookings;
 
     public ItemDto(Long id, String name, String description, Boolean available,
                    Long ownerId, Long requestId) {
-        this(id, name, description, available, ownerId, requestId, null, null, null);
+        this(id, name, description, available, ownerId, requestId, null, null, null, null, null, null);
     }
 }
\ No newline at end of file
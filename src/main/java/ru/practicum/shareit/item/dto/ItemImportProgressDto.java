@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Промежуточное состояние импорта, отправляется клиенту после каждого сохранённого пакета.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemImportProgressDto {
+    private long processed;
+    private long imported;
+    private long failed;
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemImportReportDto {
+    private long processed;
+    private long imported;
+    private long failed;
+    private List<LineError> errors;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LineError {
+        /**
+         * Номер элемента во входных данных, с нуля.
+         */
+        private long index;
+        private long line;
+        private String error;
+    }
+}
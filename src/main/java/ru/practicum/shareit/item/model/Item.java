@@ -2,6 +2,7 @@ package ru.practicum.shareit.item.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import ru.practicum.shareit.persistence.PooledSequence;
 
 @Entity
 @Table(name = "items")
@@ -14,7 +15,7 @@ import lombok.*;
 public class Item {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence(name = "items_seq")
     @Column(name = "id")
     private Long id;
 
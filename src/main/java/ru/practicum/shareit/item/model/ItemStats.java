@@ -0,0 +1,37 @@
+package ru.practicum.shareit.item.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Счётчики вещи, которые обновляются при изменениях, а не считаются при каждом чтении.
+ */
+@Entity
+@Table(name = "item_stats")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ItemStats {
+
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(name = "comment_count", nullable = false)
+    private long commentCount;
+
+    @Column(name = "last_comment_at")
+    private LocalDateTime lastCommentAt;
+
+    @Column(name = "completed_bookings", nullable = false)
+    private long completedBookings;
+
+    public static ItemStats empty(Long itemId) {
+        return ItemStats.builder().itemId(itemId).build();
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.item.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Момент, до которого завершившиеся бронирования уже учтены в item_stats.
+ */
+@Entity
+@Table(name = "item_stats_watermark")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemStatsWatermark {
+
+    public static final String COMPLETED_BOOKINGS = "completed-bookings";
+
+    @Id
+    @Column(name = "name", length = 64)
+    private String name;
+
+    @Column(name = "processed_until", nullable = false)
+    private LocalDateTime processedUntil;
+}
@@ -0,0 +1,201 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Инвертированный триграммный индекс в памяти процесса для H2 и тестового профиля.
+ * Кандидаты отбираются пересечением списков триграмм запроса и затем проверяются на вхождение подстроки,
+ * так что результат совпадает с LIKE '%text%'.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "in-memory", matchIfMissing = true)
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+
+    private static final int GRAM_SIZE = 3;
+    private static final int REBUILD_PAGE_SIZE = 1_000;
+
+    private final ItemRepository itemRepository;
+
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        log.info("Построение поискового индекса вещей");
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+
+            Pageable pageable = PageRequest.of(0, REBUILD_PAGE_SIZE);
+            Page<Item> page;
+            do {
+                page = itemRepository.findAll(pageable);
+                page.forEach(item -> put(toDocument(item)));
+                pageable = page.nextPageable();
+            } while (page.hasNext());
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Поисковый индекс построен, вещей: {}", documents.size());
+    }
+
+    @Override
+    public List<Long> search(String text, Pageable pageable) {
+        String query = text.toLowerCase();
+
+        lock.readLock().lock();
+        try {
+            return candidates(query).stream()
+                    .map(documents::get)
+                    .filter(document -> document != null && document.available())
+                    .map(document -> new Hit(document.id(), document.score(query)))
+                    .filter(hit -> hit.score() > 0)
+                    .sorted(Comparator.comparingInt(Hit::score).reversed().thenComparingLong(Hit::id))
+                    .skip(pageable.getOffset())
+                    .limit(pageable.getPageSize())
+                    .map(Hit::id)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(Item item) {
+        Document document = toDocument(item);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    store(document);
+                }
+            });
+        } else {
+            store(document);
+        }
+    }
+
+    private void store(Document document) {
+        lock.writeLock().lock();
+        try {
+            put(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Document toDocument(Item item) {
+        return new Document(item.getId(), lower(item.getName()), lower(item.getDescription()),
+                Boolean.TRUE.equals(item.getAvailable()));
+    }
+
+    private void put(Document document) {
+        Document previous = documents.put(document.id(), document);
+        if (previous != null) {
+            for (String gram : previous.grams()) {
+                Set<Long> ids = postings.get(gram);
+                if (ids != null) {
+                    ids.remove(document.id());
+                    if (ids.isEmpty()) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+        }
+        for (String gram : document.grams()) {
+            postings.computeIfAbsent(gram, key -> new HashSet<>()).add(document.id());
+        }
+    }
+
+    private Collection<Long> candidates(String query) {
+        if (query.length() < GRAM_SIZE) {
+            return documents.keySet();
+        }
+
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : gramsOf(query)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return List.of();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        Set<Long> result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    private static Set<String> gramsOf(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+
+    private static String lower(String value) {
+        return value == null ? "" : value.toLowerCase();
+    }
+
+    private record Hit(long id, int score) {
+    }
+
+    private record Document(long id, String name, String description, boolean available) {
+
+        Set<String> grams() {
+            Set<String> grams = gramsOf(name);
+            grams.addAll(gramsOf(description));
+            return grams;
+        }
+
+        /**
+         * Совпадение в названии весит больше, чем в описании; совпадение с начала названия — больше всего.
+         */
+        int score(String query) {
+            int score = 0;
+            int namePosition = name.indexOf(query);
+            if (namePosition == 0) {
+                score += 3;
+            } else if (namePosition > 0) {
+                score += 2;
+            }
+            if (description.contains(query)) {
+                score += 1;
+            }
+            return score;
+        }
+    }
+}
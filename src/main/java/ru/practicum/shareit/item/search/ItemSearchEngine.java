@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Поиск доступных вещей по подстроке в названии или описании.
+ * Реализация выбирается свойством {@code shareit.search.engine}.
+ */
+public interface ItemSearchEngine {
+
+    /**
+     * Возвращает идентификаторы доступных вещей, отсортированные по релевантности.
+     */
+    List<Long> search(String text, Pageable pageable);
+
+    /**
+     * Сообщает движку о созданной или изменённой вещи.
+     */
+    void index(Item item);
+}
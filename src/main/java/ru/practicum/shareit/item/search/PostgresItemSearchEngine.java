@@ -0,0 +1,32 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Поиск средствами Postgres: триграммные GIN-индексы из schema-postgresql.sql
+ * позволяют выполнять LIKE '%text%' без полного сканирования таблицы.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "postgres")
+public class PostgresItemSearchEngine implements ItemSearchEngine {
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Long> search(String text, Pageable pageable) {
+        return itemRepository.searchAvailableItemIds(text, pageable);
+    }
+
+    @Override
+    public void index(Item item) {
+        // индексы поддерживает сама база данных
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingFilter;
+import ru.practicum.shareit.booking.BookingState;
+
+/**
+ * Таймер {@code shareit.service} на каждый публичный метод сервисов с тегами класса, метода,
+ * состояния бронирования (для методов с параметром {@link BookingFilter} или {@link BookingState}),
+ * эндпоинта и исключения. Значения тега состояния - имена {@link BookingState}, так что их число ограничено.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+
+    static final String METRIC_NAME = "shareit.service";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(public * ru.practicum.shareit.booking.BookingService+.*(..)) " +
+            "|| execution(public * ru.practicum.shareit.booking.availability.ItemAvailabilityService+.*(..)) " +
+            "|| execution(public * ru.practicum.shareit.item.ItemService+.*(..)) " +
+            "|| execution(public * ru.practicum.shareit.item.CommentService+.*(..)) " +
+            "|| execution(public * ru.practicum.shareit.item.ItemImportService+.*(..)) " +
+            "|| execution(public * ru.practicum.shareit.request.ItemRequestService+.*(..)) " +
+            "|| execution(public * ru.practicum.shareit.user.UserService+.*(..))")
+    public Object timeServiceCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        Tags tags = Tags.of(
+                "class", signature.getDeclaringType().getSimpleName(),
+                "method", signature.getName(),
+                "state", bookingState(joinPoint.getArgs()),
+                EndpointTag.NAME, EndpointTag.current());
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(METRIC_NAME)
+                    .description("Время выполнения методов сервисов")
+                    .tags(tags.and("exception", exception))
+                    .register(meterRegistry));
+        }
+    }
+
+    private static String bookingState(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof BookingFilter filter && filter.getState() != null) {
+                return filter.getState().name();
+            }
+            if (arg instanceof BookingState state) {
+                return state.name();
+            }
+        }
+        return "none";
+    }
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Записывает в {@code shareit.http.sql.statements} число SQL-операторов, выполненных за HTTP-запрос,
+ * чтобы регрессии N+1 были видны на дашборде.
+ */
+@Component
+@RequiredArgsConstructor
+public class SqlStatementMetricsInterceptor implements HandlerInterceptor {
+
+    static final String METRIC_NAME = "shareit.http.sql.statements";
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        SqlStatementCounter.reset();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        DistributionSummary.builder(METRIC_NAME)
+                .description("Число SQL-операторов на HTTP-запрос")
+                .tag(EndpointTag.NAME, EndpointTag.of(request))
+                .register(meterRegistry)
+                .record(SqlStatementCounter.current());
+        SqlStatementCounter.clear();
+    }
+}
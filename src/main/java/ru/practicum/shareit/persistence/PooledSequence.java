@@ -0,0 +1,23 @@
+package ru.practicum.shareit.persistence;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Идентификатор из последовательности с оптимизатором pooled.
+ * Размер блока задаётся настройкой {@value PooledSequenceGenerator#ALLOCATION_SIZE_SETTING}.
+ */
+@IdGeneratorType(PooledSequenceGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface PooledSequence {
+
+    /**
+     * Имя последовательности в базе.
+     */
+    String name();
+}
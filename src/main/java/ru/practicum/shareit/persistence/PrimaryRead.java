@@ -0,0 +1,16 @@
+package ru.practicum.shareit.persistence;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Метод репозитория, чей результат кэшируется: при промахе кэша он читает с основной базы, см. {@link PrimaryReads}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PrimaryRead {
+}
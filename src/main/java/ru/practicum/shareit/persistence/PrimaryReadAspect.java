@@ -0,0 +1,42 @@
+package ru.practicum.shareit.persistence;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Выполняется внутри кэширующего перехватчика (см. порядок {@code @EnableCaching}), то есть только при промахе кэша.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class PrimaryReadAspect {
+
+    private final PrimaryReads primaryReads;
+
+    @Around("@annotation(ru.practicum.shareit.persistence.PrimaryRead)")
+    public Object readOnPrimary(ProceedingJoinPoint joinPoint) throws Throwable {
+        try {
+            return primaryReads.read(() -> {
+                try {
+                    return joinPoint.proceed();
+                } catch (Throwable e) {
+                    throw new ProceedFailure(e);
+                }
+            });
+        } catch (ProceedFailure e) {
+            throw e.getCause();
+        }
+    }
+
+    private static final class ProceedFailure extends RuntimeException {
+        private ProceedFailure(Throwable cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.persistence;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.util.function.Supplier;
+
+/**
+ * Чтения, результат которых сохраняется в кэш, выполняются на основной базе. Значение, прочитанное
+ * с отстающей реплики после сброса кэша, осталось бы в кэше на всё время жизни записи, хотя реплика
+ * давно догнала изменение.
+ * <p>
+ * Внутри read-only транзакции чтение идёт в отдельной транзакции: соединение текущей уже могло быть
+ * взято с реплики. Пишущая транзакция и так работает с основной базой и видит свои изменения.
+ * Без реплик чтение выполняется как есть.
+ */
+@Component
+public class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> FORCED = new ThreadLocal<>();
+
+    private final boolean routing;
+    private final TransactionTemplate transactionTemplate;
+
+    public PrimaryReads(PlatformTransactionManager transactionManager,
+                        @Value("${shareit.datasource.replicas:}") String replicas) {
+        this.routing = StringUtils.hasText(replicas);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public <T> T read(Supplier<T> read) {
+        if (!routing || isForced() || (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly())) {
+            return read.get();
+        }
+        FORCED.set(Boolean.TRUE);
+        try {
+            return transactionTemplate.execute(status -> read.get());
+        } finally {
+            FORCED.remove();
+        }
+    }
+
+    static boolean isForced() {
+        return Boolean.TRUE.equals(FORCED.get());
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.persistence;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Включается, когда заданы адреса реплик {@code shareit.datasource.replicas} (через запятую).
+ * Реплики подключаются с логином и паролем основной базы из {@code spring.datasource.*}.
+ * Open-in-view при этом выключается, см. {@link ReplicaRoutingEnvironmentPostProcessor}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.datasource.replicas")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            DataSourceProperties properties,
+            @Value("${shareit.datasource.replicas}") List<String> replicaUrls,
+            @Value("${shareit.datasource.replica-pool-size:10}") int replicaPoolSize,
+            @Value("${shareit.datasource.replica-max-lag:5s}") Duration maxLag,
+            @Value("${shareit.datasource.replica-lag-query:" + POSTGRES_LAG_QUERY + "}") String lagQuery,
+            @Value("${shareit.datasource.read-your-writes-window:10s}") Duration readYourWritesWindow) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setJdbcUrl(replicaUrls.get(i).trim());
+            replica.setUsername(properties.determineUsername());
+            replica.setPassword(properties.determinePassword());
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setMaximumPoolSize(replicaPoolSize);
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, maxLag, lagQuery, readYourWritesWindow);
+    }
+
+    /**
+     * Ленивый прокси откладывает выбор базы до первого запроса, когда read-only транзакции уже известен.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    /**
+     * Отставание в секундах; 0, если реплика проиграла всё полученное (иначе на простаивающей основной базе
+     * время последней транзакции растёт и выглядит как отставание).
+     */
+    static final String POSTGRES_LAG_QUERY = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() "
+            + "THEN 0 ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END";
+}
@@ -0,0 +1,191 @@
+package ru.practicum.shareit.persistence;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Направляет read-only транзакции на реплики, остальные - на основную базу.
+ * <ul>
+ *     <li>из исправных реплик выбирается та, у которой меньше всего занятых соединений, при равенстве - по кругу;</li>
+ *     <li>реплика с отставанием больше допустимого или недоступная исключается до следующей проверки;</li>
+ *     <li>после коммита записи чтения того же {@code X-Sharer-User-Id} идут в основную базу в течение окна
+ *     read-your-writes, пока реплики догоняют запись;</li>
+ *     <li>чтения для кэшей ({@link PrimaryReads}) идут в основную базу.</li>
+ * </ul>
+ * Работает только за {@code LazyConnectionDataSourceProxy}: иначе соединение берётся до того,
+ * как транзакция помечена read-only.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+    static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Duration maxLag;
+    private final String lagQuery;
+    private final Cache<Long, Boolean> recentWriters;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicaPools,
+                                    Duration maxLag, String lagQuery, Duration readYourWritesWindow) {
+        this.maxLag = maxLag;
+        this.lagQuery = lagQuery;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(readYourWritesWindow)
+                .build();
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (HikariDataSource pool : replicaPools) {
+            Replica replica = new Replica(pool.getPoolName(), pool);
+            replicas.add(replica);
+            targets.put(replica.key, pool);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checkReplicas();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            rememberWriteOnCommit();
+            return PRIMARY;
+        }
+        if (PrimaryReads.isForced()) {
+            return PRIMARY;
+        }
+        Long userId = currentUserId();
+        if (userId != null && recentWriters.getIfPresent(userId) != null) {
+            return PRIMARY;
+        }
+        Replica replica = chooseReplica();
+        return replica == null ? PRIMARY : replica.key;
+    }
+
+    /**
+     * Запоминает пользователя после коммита, а не при получении соединения: окно отсчитывается
+     * с момента, когда запись стала видна на основной базе.
+     */
+    private void rememberWriteOnCommit() {
+        Long userId = currentUserId();
+        if (userId == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(userId, Boolean.TRUE);
+            }
+        });
+    }
+
+    private Replica chooseReplica() {
+        int size = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), size);
+        Replica best = null;
+        int bestActive = Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            Replica candidate = replicas.get((start + i) % size);
+            if (!candidate.healthy) {
+                continue;
+            }
+            int active = candidate.activeConnections();
+            if (active < bestActive) {
+                best = candidate;
+                bestActive = active;
+            }
+        }
+        return best;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.datasource.replica-check-interval:PT5S}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.pool.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                double lagSeconds = resultSet.next() ? resultSet.getDouble(1) : 0;
+                healthy = lagSeconds * 1000 <= maxLag.toMillis();
+                if (!healthy) {
+                    log.warn("Реплика {} отстаёт на {} с, чтения идут на другие реплики или основную базу",
+                            replica.key, lagSeconds);
+                }
+            } catch (Exception e) {
+                log.warn("Реплика {} недоступна: {}", replica.key, e.getMessage());
+                healthy = false;
+            }
+            if (healthy && !replica.healthy) {
+                log.info("Реплика {} снова принимает чтения", replica.key);
+            }
+            replica.healthy = healthy;
+        }
+    }
+
+    private static Long currentUserId() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            String header = servletAttributes.getRequest().getHeader(USER_HEADER);
+            if (header != null) {
+                try {
+                    return Long.valueOf(header.trim());
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Закрывает пулы реплик; пулом основной базы управляет контекст.
+     */
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    private static final class Replica {
+        private final String key;
+        private final HikariDataSource pool;
+        private volatile boolean healthy;
+
+        private Replica(String key, HikariDataSource pool) {
+            this.key = key;
+            this.pool = pool;
+        }
+
+        private int activeConnections() {
+            HikariPoolMXBean mxBean = pool.getHikariPoolMXBean();
+            return mxBean == null ? 0 : mxBean.getActiveConnections();
+        }
+    }
+}
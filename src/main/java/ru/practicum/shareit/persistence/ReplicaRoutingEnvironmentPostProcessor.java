@@ -0,0 +1,25 @@
+package ru.practicum.shareit.persistence;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Map;
+
+/**
+ * При заданных репликах выключает open-in-view. EntityManager запроса держит первое полученное соединение
+ * до конца запроса, поэтому база выбиралась бы один раз на запрос: после чтения с реплики запись в том же
+ * запросе ушла бы в то же соединение с репликой. Без open-in-view у каждой транзакции своё соединение.
+ */
+public class ReplicaRoutingEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (!environment.containsProperty("shareit.datasource.replicas")) {
+            return;
+        }
+        environment.getPropertySources().addFirst(
+                new MapPropertySource("shareitReplicaRouting", Map.of("spring.jpa.open-in-view", "false")));
+    }
+}
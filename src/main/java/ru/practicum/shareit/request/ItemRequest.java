@@ -1,14 +1,32 @@
 package ru.practicum.shareit.request;
 
-import lombok.Data;
-import ru.practicum.shareit.user.User;
+import jakarta.persistence.*;
+import lombok.*;
+import ru.practicum.shareit.persistence.PooledSequence;
 
 import java.time.LocalDateTime;
 
-@Data
+@Entity
+@Table(name = "requests")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
 public class ItemRequest {
+
+    @Id
+    @PooledSequence(name = "requests_seq")
+    @Column(name = "id")
     private Long id;
+
+    @Column(name = "description", nullable = false, columnDefinition = "TEXT")
     private String description;
-    private User requestor;
+
+    @Column(name = "requestor_id", nullable = false)
+    private Long requestorId;
+
+    @Column(name = "created", nullable = false)
     private LocalDateTime created;
 }
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.request;
+
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.util.List;
+
+@Component
+public class ItemRequestMapper {
+
+    public ItemRequestDto toDto(ItemRequest itemRequest, List<ItemAnswerDto> items) {
+        if (itemRequest == null) {
+            return null;
+        }
+        return ItemRequestDto.builder()
+                .id(itemRequest.getId())
+                .description(itemRequest.getDescription())
+                .requestorId(itemRequest.getRequestorId())
+                .created(itemRequest.getCreated())
+                .items(items)
+                .build();
+    }
+}
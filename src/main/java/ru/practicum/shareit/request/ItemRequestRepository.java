@@ -0,0 +1,27 @@
+package ru.practicum.shareit.request;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+
+    List<ItemRequest> findByRequestorIdOrderByCreatedDescIdDesc(Long requestorId);
+
+    @Query("SELECT r FROM ItemRequest r WHERE r.requestorId <> :userId ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequest> findOthers(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT r FROM ItemRequest r WHERE r.requestorId <> :userId " +
+            "AND (r.created < :cursorCreated OR (r.created = :cursorCreated AND r.id < :cursorId)) " +
+            "ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequest> findOthersAfterCursor(@Param("userId") Long userId,
+                                            @Param("cursorCreated") LocalDateTime cursorCreated,
+                                            @Param("cursorId") Long cursorId,
+                                            Pageable pageable);
+}
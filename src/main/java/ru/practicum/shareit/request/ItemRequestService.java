@@ -0,0 +1,17 @@
+package ru.practicum.shareit.request;
+
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.util.List;
+
+public interface ItemRequestService {
+
+    ItemRequestDto createRequest(Long userId, ItemRequestDto itemRequestDto);
+
+    List<ItemRequestDto> getOwnRequests(Long userId);
+
+    List<ItemRequestDto> getOtherRequests(Long userId, KeysetCursor cursor, int size);
+
+    ItemRequestDto getRequestById(Long userId, Long requestId);
+}
@@ -0,0 +1,107 @@
+package ru.practicum.shareit.request;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ItemRequestServiceImpl implements ItemRequestService {
+
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final ItemRequestMapper itemRequestMapper;
+
+    @Value("${shareit.requests.page.max-size:100}")
+    private int maxPageSize;
+
+    @Override
+    @Transactional
+    public ItemRequestDto createRequest(Long userId, ItemRequestDto itemRequestDto) {
+        log.info("Создание запроса вещи пользователем id: {}", userId);
+        validateUserExists(userId);
+
+        ItemRequest itemRequest = ItemRequest.builder()
+                .description(itemRequestDto.getDescription())
+                .requestorId(userId)
+                .created(LocalDateTime.now())
+                .build();
+        ItemRequest saved = itemRequestRepository.save(itemRequest);
+
+        log.info("Запрос вещи создан с id: {}", saved.getId());
+        return itemRequestMapper.toDto(saved, List.of());
+    }
+
+    @Override
+    public List<ItemRequestDto> getOwnRequests(Long userId) {
+        log.info("Получение запросов пользователя id: {}", userId);
+        validateUserExists(userId);
+        return withAnswers(itemRequestRepository.findByRequestorIdOrderByCreatedDescIdDesc(userId));
+    }
+
+    @Override
+    public List<ItemRequestDto> getOtherRequests(Long userId, KeysetCursor cursor, int size) {
+        log.info("Получение запросов других пользователей для пользователя id: {}", userId);
+        validateUserExists(userId);
+        if (size > maxPageSize) {
+            throw new ValidationException("Размер страницы не может быть больше " + maxPageSize);
+        }
+
+        Pageable pageable = PageRequest.of(0, size);
+        List<ItemRequest> requests = cursor == null
+                ? itemRequestRepository.findOthers(userId, pageable)
+                : itemRequestRepository.findOthersAfterCursor(userId, cursor.timestamp(), cursor.id(), pageable);
+        return withAnswers(requests);
+    }
+
+    @Override
+    public ItemRequestDto getRequestById(Long userId, Long requestId) {
+        log.info("Получение запроса вещи id: {} пользователем id: {}", requestId, userId);
+        validateUserExists(userId);
+
+        ItemRequest itemRequest = itemRequestRepository.findById(requestId)
+                .orElseThrow(() -> new NotFoundException("Запрос вещи не найден с id: " + requestId));
+        return withAnswers(List.of(itemRequest)).get(0);
+    }
+
+    /**
+     * Ответы на все запросы страницы загружаются одним запросом и раскладываются по запросам в памяти.
+     */
+    private List<ItemRequestDto> withAnswers(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<ItemAnswerDto>> answers = itemRepository.findAnswersByRequestIds(
+                        requests.stream().map(ItemRequest::getId).collect(Collectors.toList())).stream()
+                .collect(Collectors.groupingBy(ItemAnswerDto::getRequestId));
+
+        return requests.stream()
+                .map(request -> itemRequestMapper.toDto(request, answers.getOrDefault(request.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+
+    private void validateUserExists(Long userId) {
+        if (userRepository.findCachedById(userId).isEmpty()) {
+            throw new NotFoundException("Пользователь не найден с id: " + userId);
+        }
+    }
+}
@@ -1,4 +1,25 @@
 package ru.practicum.shareit.request.dto;
 
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class ItemRequestDto {
+    private Long id;
+
+    @NotBlank(message = "Описание запроса не может быть пустым")
+    private String description;
+
+    private Long requestorId;
+    private LocalDateTime created;
+    private List<ItemAnswerDto> items;
 }
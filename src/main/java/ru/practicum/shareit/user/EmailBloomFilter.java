@@ -0,0 +1,122 @@
+package ru.practicum.shareit.user;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Фильтр Блума по известным email в памяти процесса. Отрицательный ответ означает, что адрес точно
+ * не встречался этому экземпляру, и проверочный запрос перед вставкой можно пропустить.
+ * Источником истины остаётся уникальный индекс: адреса с других экземпляров и удалённые пользователи
+ * дают только лишнюю проверку или отказ при вставке.
+ * Адреса сравниваются без учёта регистра, как в уникальном индексе по LOWER(email).
+ */
+@Slf4j
+@Component
+public class EmailBloomFilter {
+
+    private static final int WARM_UP_PAGE_SIZE = 1_000;
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private volatile boolean ready;
+
+    public EmailBloomFilter(UserRepository userRepository,
+                            @Value("${shareit.users.email-filter.enabled:true}") boolean enabled,
+                            @Value("${shareit.users.email-filter.expected-emails:1000000}") long expectedEmails,
+                            @Value("${shareit.users.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        long optimalBits = (long) Math.ceil(-expectedEmails * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.max(1, (optimalBits + Long.SIZE - 1) / Long.SIZE);
+        this.bits = new AtomicLongArray(enabled ? words : 1);
+        this.bitCount = (long) words * Long.SIZE;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedEmails * Math.log(2)));
+    }
+
+    /**
+     * До загрузки всех адресов из базы фильтр отвечает «возможно есть» на любой запрос.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+        log.info("Загрузка email пользователей в фильтр Блума");
+        long loaded = 0;
+        long afterId = 0;
+        List<User> page;
+        do {
+            page = userRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, WARM_UP_PAGE_SIZE));
+            for (User user : page) {
+                put(user.getEmail());
+                afterId = user.getId();
+            }
+            loaded += page.size();
+        } while (page.size() == WARM_UP_PAGE_SIZE);
+        ready = true;
+        log.info("Фильтр Блума заполнен, адресов: {}, бит: {}, хэш-функций: {}", loaded, bitCount, hashCount);
+    }
+
+    public boolean mightContain(String email) {
+        if (!enabled || !ready) {
+            return true;
+        }
+        long hash = hash(email);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void put(String email) {
+        if (!enabled) {
+            return;
+        }
+        long hash = hash(email);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = bits.get(word);
+            while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                current = bits.get(word);
+            }
+        }
+    }
+
+    /**
+     * 64-битный FNV-1a по UTF-8 адреса в нижнем регистре с финальным перемешиванием из MurmurHash3.
+     */
+    private static long hash(String email) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : email.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb3fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.user;
 
 import jakarta.persistence.*;
 import lombok.*;
+import ru.practicum.shareit.persistence.PooledSequence;
 
 @Entity
 @Table(name = "users")
@@ -14,7 +15,7 @@ import lombok.*;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence(name = "users_seq")
     @Column(name = "id")
     private Long id;
 
@@ -1,9 +1,16 @@
 package ru.practicum.shareit.user;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.cache.CachedResponse;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
@@ -30,15 +37,33 @@ public class UserController {
     }
 
     @GetMapping("/{userId}")
-    public UserDto getUserById(@PathVariable Long userId) {
+    public ResponseEntity<UserDto> getUserById(@PathVariable Long userId) {
         log.info("GET /users/{} - получение пользователя по ID", userId);
-        return userService.getUserById(userId);
+        CachedResponse<UserDto> response = userService.getUserResponse(userId);
+        return ResponseEntity.ok().eTag(response.etag()).body(response.body());
     }
 
     @GetMapping
-    public List<UserDto> getAllUsers() {
-        log.info("GET /users - получение всех пользователей");
-        return userService.getAllUsers();
+    public ResponseEntity<List<UserDto>> getAllUsers(
+            @RequestParam(defaultValue = "0") @PositiveOrZero Long cursor,
+            @RequestParam(defaultValue = "100") @Positive int size) {
+        log.info("GET /users?cursor={}&size={} - получение страницы пользователей", cursor, size);
+        CachedResponse<List<UserDto>> response = userService.getUsersResponse(cursor, size);
+        List<UserDto> users = response.body();
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().eTag(response.etag());
+        // Курсор следующей страницы - id последнего пользователя на текущей
+        if (users.size() == size) {
+            builder.header(KeysetCursor.NEXT_CURSOR_HEADER, String.valueOf(users.get(users.size() - 1).getId()));
+        }
+        return builder.body(users);
+    }
+
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllUsers() {
+        log.info("GET /users?stream=true - потоковая выгрузка всех пользователей");
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(userService.streamUsers());
     }
 
     @DeleteMapping("/{userId}")
@@ -1,11 +1,55 @@
 package ru.practicum.shareit.user;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.persistence.PrimaryRead;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
-    boolean existsByEmail(String email);
+    String USERS_CACHE = "users";
+
+    /**
+     * Чтение пользователя через кэш; изменяющие операции должны читать через findById.
+     */
+    @PrimaryRead
+    @Cacheable(cacheNames = USERS_CACHE, key = "#id", unless = "#result == null")
+    @Query("SELECT u FROM User u WHERE u.id = :id")
+    Optional<User> findCachedById(@Param("id") Long id);
+
+    /**
+     * Email хранится в том регистре, в каком его прислали, а уникален без учёта регистра.
+     * Сравнение через LOWER, как в индексе ux_users_email_lower, чтобы запрос шёл по нему.
+     */
+    @Query("SELECT COUNT(u) > 0 FROM User u WHERE LOWER(u.email) = LOWER(:email)")
+    boolean existsByEmailIgnoreCase(@Param("email") String email);
+
+    @Query("SELECT COUNT(u) > 0 FROM User u WHERE LOWER(u.email) = LOWER(:email) AND u.id <> :id")
+    boolean existsByEmailIgnoreCaseAndIdNot(@Param("email") String email, @Param("id") Long id);
+
+    List<User> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    String STREAM_FETCH_SIZE = "500";
 
-    boolean existsByEmailAndIdNot(String email, Long id);
+    /**
+     * Все пользователи в порядке id без загрузки сущностей в контекст персистентности.
+     * Вызывать внутри транзакции и закрывать поток.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new ru.practicum.shareit.user.dto.UserDto(u.id, u.name, u.email) FROM User u ORDER BY u.id")
+    Stream<UserDto> streamAll();
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package ru.practicum.shareit.user;
 
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.cache.CachedResponse;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
@@ -11,7 +13,13 @@ public interface UserService {
 
     UserDto getUserById(Long userId);
 
-    List<UserDto> getAllUsers();
+    List<UserDto> getUsers(Long afterId, int size);
+
+    CachedResponse<UserDto> getUserResponse(Long userId);
+
+    CachedResponse<List<UserDto>> getUsersResponse(Long afterId, int size);
+
+    StreamingResponseBody streamUsers();
 
     void deleteUser(Long userId);
 }
\ No newline at end of file
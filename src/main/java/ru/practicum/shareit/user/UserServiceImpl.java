@@ -1,15 +1,32 @@
 package ru.practicum.shareit.user;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.cache.CachedResponse;
+import ru.practicum.shareit.cache.ResponseCache;
 import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -19,27 +36,38 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final ResponseCache responseCache;
+    private final EmailBloomFilter emailFilter;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${shareit.users.page.max-size:1000}")
+    private int maxPageSize;
 
     @Override
     @Transactional
     public UserDto createUser(UserDto userDto) {
         log.info("Создание пользователя с email: {}", userDto.getEmail());
+        String email = userDto.getEmail();
 
-        // Проверка на уникальность email
-        if (userRepository.existsByEmail(userDto.getEmail())) {
-            log.warn("Попытка создания пользователя с уже существующим email: {}", userDto.getEmail());
-            throw new ConflictException("Пользователь с email " + userDto.getEmail() + " уже существует");
+        // Запрос к базе только для адресов, которые фильтр уже встречал; гонку закрывает уникальный индекс
+        if (emailFilter.mightContain(email) && userRepository.existsByEmailIgnoreCase(email)) {
+            log.warn("Попытка создания пользователя с уже существующим email: {}", email);
+            throw new ConflictException("Пользователь с email " + email + " уже существует");
         }
 
         User user = userMapper.toEntity(userDto);
-        User savedUser = userRepository.save(user);
+        User savedUser = saveWithUniqueEmail(user);
+        emailFilter.put(email);
 
+        responseCache.evictUserLists();
         log.info("Пользователь создан с id: {}", savedUser.getId());
         return userMapper.toDto(savedUser);
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = UserRepository.USERS_CACHE, key = "#userId")
     public UserDto updateUser(Long userId, UserDto userDto) {
         log.info("Обновление пользователя id: {}", userId);
 
@@ -58,20 +86,33 @@ public class UserServiceImpl implements UserService {
         // Обновление email, если передано
         if (userDto.getEmail() != null && !userDto.getEmail().isBlank()) {
             log.debug("Обновление email пользователя id: {}", userId);
-            // Проверка, что email не занят другим пользователем
-            if (userRepository.existsByEmailAndIdNot(userDto.getEmail(), userId)) {
-                log.warn("Попытка обновить email на уже занятый: {} пользователем id: {}",
-                        userDto.getEmail(), userId);
-                throw new ConflictException("Email " + userDto.getEmail() + " уже используется другим пользователем");
+            String email = userDto.getEmail();
+            if (emailFilter.mightContain(email) && userRepository.existsByEmailIgnoreCaseAndIdNot(email, userId)) {
+                log.warn("Попытка обновить email на уже занятый: {} пользователем id: {}", email, userId);
+                throw new ConflictException("Email " + email + " уже используется другим пользователем");
             }
-            existingUser.setEmail(userDto.getEmail());
+            existingUser.setEmail(email);
         }
 
-        User updatedUser = userRepository.save(existingUser);
+        User updatedUser = saveWithUniqueEmail(existingUser);
+        emailFilter.put(updatedUser.getEmail());
+        responseCache.evictUser(userId);
         log.info("Пользователь id: {} успешно обновлен", userId);
         return userMapper.toDto(updatedUser);
     }
 
+    /**
+     * Вставка сбрасывается сразу, чтобы нарушение уникальности email пришло здесь, а не при коммите.
+     */
+    private User saveWithUniqueEmail(User user) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Email {} уже занят параллельным запросом", user.getEmail());
+            throw new ConflictException("Пользователь с email " + user.getEmail() + " уже существует");
+        }
+    }
+
     @Override
     public UserDto getUserById(Long userId) {
         log.info("Получение пользователя по id: {}", userId);
@@ -87,10 +128,13 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public List<UserDto> getAllUsers() {
-        log.info("Получение всех пользователей");
+    public List<UserDto> getUsers(Long afterId, int size) {
+        log.info("Получение пользователей после id: {}, размер страницы: {}", afterId, size);
+        if (size > maxPageSize) {
+            throw new ValidationException("Размер страницы не может быть больше " + maxPageSize);
+        }
 
-        List<User> users = userRepository.findAll();
+        List<User> users = userRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, size));
         log.debug("Найдено {} пользователей", users.size());
 
         return users.stream()
@@ -98,8 +142,56 @@ public class UserServiceImpl implements UserService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Выгрузка всех пользователей в NDJSON. Транзакция открывается в потоке, который пишет тело ответа,
+     * строки читаются курсором и сразу сериализуются.
+     */
+    @Override
+    public StreamingResponseBody streamUsers() {
+        log.info("Потоковая выгрузка всех пользователей");
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        return out -> {
+            long rows = transactionTemplate.execute(status -> {
+                try (Stream<UserDto> users = userRepository.streamAll()) {
+                    return writeNdjson(users, out);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            log.info("Выгружено пользователей: {}", rows);
+        };
+    }
+
+    private long writeNdjson(Stream<UserDto> users, OutputStream out) throws IOException {
+        long count = 0;
+        try (SequenceWriter writer = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(out)) {
+            for (UserDto user : (Iterable<UserDto>) users::iterator) {
+                writer.write(user);
+                count++;
+            }
+        }
+        out.write('\n');
+        out.flush();
+        return count;
+    }
+
+    @Override
+    public CachedResponse<UserDto> getUserResponse(Long userId) {
+        return responseCache.get(ResponseCache.userKey(userId), () -> getUserById(userId));
+    }
+
+    @Override
+    public CachedResponse<List<UserDto>> getUsersResponse(Long afterId, int size) {
+        return responseCache.get(ResponseCache.USERS_PREFIX + afterId + ":" + size, () -> getUsers(afterId, size));
+    }
+
     @Override
     @Transactional
+    @CacheEvict(cacheNames = UserRepository.USERS_CACHE, key = "#userId")
     public void deleteUser(Long userId) {
         log.info("Удаление пользователя id: {}", userId);
 
@@ -109,6 +201,7 @@ public class UserServiceImpl implements UserService {
         }
 
         userRepository.deleteById(userId);
+        responseCache.evictUser(userId);
         log.info("Пользователь id: {} успешно удален", userId);
     }
 }
\ No newline at end of file
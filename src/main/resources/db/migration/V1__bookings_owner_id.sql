@@ -0,0 +1,16 @@
+-- Денормализация владельца вещи в бронирования: запросы владельца больше не соединяют bookings с items.
+-- Применяется к существующей базе до запуска новой версии приложения.
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS owner_id BIGINT;
+
+UPDATE bookings b
+SET owner_id = i.owner_id
+FROM items i
+WHERE b.item_id = i.id
+  AND b.owner_id IS NULL;
+
+ALTER TABLE bookings ALTER COLUMN owner_id SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_status_start ON bookings (owner_id, status, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_start_id ON bookings (owner_id, start_date DESC, id DESC);
+DROP INDEX IF EXISTS idx_bookings_item_start_id;
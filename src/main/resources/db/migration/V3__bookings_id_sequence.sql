@@ -0,0 +1,10 @@
+-- Идентификаторы бронирований из последовательности с шагом 50 вместо IDENTITY,
+-- чтобы Hibernate выделял их блоками и мог объединять вставки в JDBC-пакеты.
+
+CREATE SEQUENCE IF NOT EXISTS bookings_seq INCREMENT BY 50;
+
+-- Оптимизатор pooled трактует значение последовательности как верхнюю границу блока,
+-- поэтому первое значение должно быть не меньше MAX(id) + 50.
+SELECT setval('bookings_seq', COALESCE((SELECT MAX(id) FROM bookings), 0) + 50, false);
+
+ALTER TABLE bookings ALTER COLUMN id DROP IDENTITY IF EXISTS;
@@ -0,0 +1,15 @@
+-- Идентификаторы пользователей, вещей и отзывов из последовательностей с шагом 50 вместо IDENTITY
+-- (бронирования переведены в V3). Первое значение не меньше MAX(id) + 50, так как оптимизатор pooled
+-- трактует значение последовательности как верхнюю границу блока.
+
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+SELECT setval('users_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 50, false);
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS items_seq INCREMENT BY 50;
+SELECT setval('items_seq', COALESCE((SELECT MAX(id) FROM items), 0) + 50, false);
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS comments_seq INCREMENT BY 50;
+SELECT setval('comments_seq', COALESCE((SELECT MAX(id) FROM comments), 0) + 50, false);
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY IF EXISTS;
@@ -0,0 +1,6 @@
+-- Уникальность email без учёта регистра. Адреса хранятся в том регистре, в каком их прислали,
+-- индекс по LOWER(email) не даёт завести второй адрес, отличающийся только регистром.
+-- Если в таблице уже есть такие адреса, создание индекса упадёт:
+-- эти учётные записи нужно объединить вручную до миграции.
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_users_email_lower ON users (LOWER(email));
@@ -0,0 +1,15 @@
+-- Запросы вещей и ответы на них. Ответы на страницу запросов выбираются одним запросом по items.request_id,
+-- лента чужих запросов листается по ключу (created, id).
+
+CREATE SEQUENCE IF NOT EXISTS requests_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS requests (
+    id BIGINT PRIMARY KEY,
+    description TEXT NOT NULL,
+    requestor_id BIGINT NOT NULL,
+    created TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+CREATE INDEX IF NOT EXISTS idx_requests_requestor_created_id ON requests (requestor_id, created DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_requests_created_id ON requests (created DESC, id DESC);
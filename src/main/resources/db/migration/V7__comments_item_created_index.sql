@@ -0,0 +1,3 @@
+-- Лента комментариев вещи и превью в ItemDto читают последние комментарии по (item_id, created DESC, id DESC).
+
+CREATE INDEX IF NOT EXISTS idx_comments_item_created_id ON comments (item_id, created DESC, id DESC);
@@ -0,0 +1,29 @@
+-- Счётчики вещи (отзывы, последний отзыв, завершённые бронирования) вместо подсчёта при каждом чтении.
+-- Отметка completed-bookings получает то же время, по которое посчитаны бронирования, дальше счётчик
+-- ведёт периодический пересчёт. Применять до выкладки версии, которая пишет в item_stats.
+
+CREATE TABLE IF NOT EXISTS item_stats (
+    item_id BIGINT PRIMARY KEY,
+    comment_count BIGINT NOT NULL DEFAULT 0,
+    last_comment_at TIMESTAMP,
+    completed_bookings BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS item_stats_watermark (
+    name VARCHAR(64) PRIMARY KEY,
+    processed_until TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_status_end ON bookings (status, end_date);
+
+INSERT INTO item_stats (item_id, comment_count, last_comment_at, completed_bookings)
+SELECT i.id,
+       (SELECT COUNT(*) FROM comments c WHERE c.item_id = i.id),
+       (SELECT MAX(c.created) FROM comments c WHERE c.item_id = i.id),
+       (SELECT COUNT(*) FROM bookings b WHERE b.item_id = i.id AND b.status = 'APPROVED' AND b.end_date <= LOCALTIMESTAMP)
+FROM items i
+ON CONFLICT (item_id) DO NOTHING;
+
+INSERT INTO item_stats_watermark (name, processed_until)
+VALUES ('completed-bookings', LOCALTIMESTAMP)
+ON CONFLICT (name) DO NOTHING;
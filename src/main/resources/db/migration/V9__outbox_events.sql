@@ -0,0 +1,29 @@
+-- Outbox событий бронирований, отзывов и вещей. Строки пишутся в транзакции изменения, фоновая рассылка
+-- доставляет их по порядку внутри агрегата и удаляет; строки со статусом FAILED остаются для разбора.
+
+CREATE SEQUENCE IF NOT EXISTS outbox_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGINT PRIMARY KEY,
+    aggregate_type VARCHAR(32) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    event_type VARCHAR(64) NOT NULL,
+    payload TEXT NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL,
+    next_attempt_at TIMESTAMP NOT NULL,
+    last_error VARCHAR(1000)
+);
+
+CREATE TABLE IF NOT EXISTS outbox_dispatcher_lock (
+    name VARCHAR(64) PRIMARY KEY,
+    dispatched_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_status_id ON outbox_events (status, id);
+CREATE INDEX IF NOT EXISTS idx_outbox_aggregate_id ON outbox_events (aggregate_type, aggregate_id, id);
+
+INSERT INTO outbox_dispatcher_lock (name)
+VALUES ('outbox')
+ON CONFLICT (name) DO NOTHING;
@@ -0,0 +1,4 @@
+-- Уникальность email без учёта регистра, как ux_users_email_lower в schema-postgresql.sql:
+-- индексов по выражению в H2 нет, поэтому индекс строится по вычисляемому столбцу.
+ALTER TABLE users ADD COLUMN IF NOT EXISTS email_lower VARCHAR(512) GENERATED ALWAYS AS (LOWER(email));
+CREATE UNIQUE INDEX IF NOT EXISTS ux_users_email_lower ON users (email_lower);
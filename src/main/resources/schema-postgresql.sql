@@ -0,0 +1,21 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm ON items USING GIN (LOWER(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm ON items USING GIN (LOWER(description) gin_trgm_ops);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_users_email_lower ON users (LOWER(email));
+
+-- Запрет пересечения подтверждённых бронирований одной вещи, как в V2__bookings_overlap_protection.sql.
+-- Тело DO в одинарных кавычках: разбор скрипта при инициализации не знает $$ и резал бы блок по ';'.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+DO '
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ''bookings_approved_no_overlap'') THEN
+        ALTER TABLE bookings
+            ADD CONSTRAINT bookings_approved_no_overlap
+            EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+            WHERE (status = ''APPROVED'');
+    END IF;
+END
+';
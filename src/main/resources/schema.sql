@@ -1,31 +1,93 @@
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS outbox_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS users (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
     email VARCHAR(512) NOT NULL UNIQUE
 );
 
 CREATE TABLE IF NOT EXISTS items (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
     description TEXT,
-    available BOOLEAN NOT NULL,
+    is_available BOOLEAN NOT NULL,
     owner_id BIGINT NOT NULL,
     request_id BIGINT
 );
 
 CREATE TABLE IF NOT EXISTS bookings (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     start_date TIMESTAMP NOT NULL,
     end_date TIMESTAMP NOT NULL,
     item_id BIGINT NOT NULL,
     booker_id BIGINT NOT NULL,
-    status VARCHAR(20) NOT NULL
+    owner_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0
 );
 
 CREATE TABLE IF NOT EXISTS comments (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     text TEXT NOT NULL,
     item_id BIGINT NOT NULL,
     author_id BIGINT NOT NULL,
     created TIMESTAMP NOT NULL
-);
\ No newline at end of file
+);
+
+CREATE TABLE IF NOT EXISTS item_stats (
+    item_id BIGINT PRIMARY KEY,
+    comment_count BIGINT NOT NULL DEFAULT 0,
+    last_comment_at TIMESTAMP,
+    completed_bookings BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS item_stats_watermark (
+    name VARCHAR(64) PRIMARY KEY,
+    processed_until TIMESTAMP NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS requests (
+    id BIGINT PRIMARY KEY,
+    description TEXT NOT NULL,
+    requestor_id BIGINT NOT NULL,
+    created TIMESTAMP NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGINT PRIMARY KEY,
+    aggregate_type VARCHAR(32) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    event_type VARCHAR(64) NOT NULL,
+    payload TEXT NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL,
+    next_attempt_at TIMESTAMP NOT NULL,
+    last_error VARCHAR(1000)
+);
+
+CREATE TABLE IF NOT EXISTS outbox_dispatcher_lock (
+    name VARCHAR(64) PRIMARY KEY,
+    dispatched_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start_id ON bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_status_start ON bookings (owner_id, status, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_start_id ON bookings (owner_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_status_end ON bookings (status, end_date);
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id);
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+CREATE INDEX IF NOT EXISTS idx_comments_item_created_id ON comments (item_id, created DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_requests_requestor_created_id ON requests (requestor_id, created DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_requests_created_id ON requests (created DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_outbox_status_id ON outbox_events (status, id);
+CREATE INDEX IF NOT EXISTS idx_outbox_aggregate_id ON outbox_events (aggregate_type, aggregate_id, id);
+
+INSERT INTO outbox_dispatcher_lock (name)
+SELECT 'outbox' WHERE NOT EXISTS (SELECT 1 FROM outbox_dispatcher_lock WHERE name = 'outbox');
@@ -0,0 +1,116 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Нагрузочная проверка: параллельные подтверждения пересекающихся бронирований одной вещи
+ * не должны приводить к двум подтверждённым бронированиям на один слот.
+ */
+@SpringBootTest
+class BookingConcurrencyTest {
+
+    private static final int ITEMS = 5;
+    private static final int BOOKINGS_PER_ITEM = 40;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void concurrentApprovalsOfOverlappingBookingsApproveExactlyOnePerItem() throws Exception {
+        String run = String.valueOf(System.nanoTime());
+        Long ownerId = userService.createUser(new UserDto(null, "owner", "owner-" + run + "@shareit.ru")).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+
+        List<Long> itemIds = new ArrayList<>();
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            ItemDto item = itemService.createItem(ownerId, ItemDto.builder()
+                    .name("item-" + i)
+                    .description("concurrency")
+                    .available(true)
+                    .build());
+            itemIds.add(item.getId());
+
+            for (int b = 0; b < BOOKINGS_PER_ITEM; b++) {
+                Long bookerId = userService.createUser(
+                        new UserDto(null, "booker", "booker-" + i + "-" + b + "-" + run + "@shareit.ru")).getId();
+                // Все бронирования вещи пересекаются между собой, но сдвинуты на минуту
+                BookingRequestDto request = new BookingRequestDto(item.getId(),
+                        start.plusMinutes(b), start.plusHours(2).plusMinutes(b));
+                bookingIds.add(bookingService.createBooking(bookerId, request).getId());
+            }
+        }
+        Collections.shuffle(bookingIds);
+
+        AtomicInteger approved = new AtomicInteger();
+        AtomicInteger rejectedByConflict = new AtomicInteger();
+        CountDownLatch startSignal = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Long bookingId : bookingIds) {
+            futures.add(executor.submit(() -> {
+                startSignal.await();
+                try {
+                    bookingService.updateBookingStatus(ownerId, bookingId, true);
+                    approved.incrementAndGet();
+                } catch (ConflictException | OptimisticLockingFailureException
+                         | PessimisticLockingFailureException e) {
+                    // Любое другое исключение пробрасывается и валит тест через future.get
+                    rejectedByConflict.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        startSignal.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertEquals(ITEMS, approved.get());
+        assertEquals(ITEMS * BOOKINGS_PER_ITEM - ITEMS, rejectedByConflict.get());
+        for (Long itemId : itemIds) {
+            long approvedForItem = bookingRepository.findAll().stream()
+                    .filter(booking -> booking.getItemId().equals(itemId))
+                    .filter(booking -> booking.getStatus() == BookingStatus.APPROVED)
+                    .count();
+            assertEquals(1, approvedForItem, "вещь " + itemId);
+        }
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,171 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Сравнение прежних JPQL-запросов по состояниям с запросом, собранным из BookingFilter: одинаковые страницы
+ * и сопоставимое время. Потеря индекса на таком объёме превращает поиск по диапазону индекса в полный просмотр
+ * и даёт разрыв на порядки, поэтому медиана нового запроса не должна превышать прежнюю больше чем в полтора раза.
+ * Запускается профилем {@code benchmark}: {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BookingFilterQueryBenchmarkTest {
+
+    private static final int OWNERS = 50;
+    private static final int ITEMS_PER_OWNER = 20;
+    private static final int BOOKINGS_PER_ITEM = 50;
+    private static final int BOOKERS = 20;
+    private static final int PAGE_SIZE = 20;
+    private static final int ITERATIONS = 300;
+    private static final double MAX_SLOWDOWN = 1.5;
+    private static final long SLACK_MICROS = 50;
+
+    private static final String LEGACY_SELECT = "SELECT new ru.practicum.shareit.booking.dto.BookingResponseDto(" +
+            "b.id, b.start, b.end, b.status, u.id, u.name, i.id, i.name) " +
+            "FROM Booking b JOIN User u ON u.id = b.bookerId JOIN Item i ON i.id = b.itemId ";
+    private static final String LEGACY_ORDER = " ORDER BY b.start DESC, b.id DESC";
+    private static final Map<BookingState, String> LEGACY_CONDITIONS = Map.of(
+            BookingState.ALL, "",
+            BookingState.CURRENT, " AND b.start < :now AND b.end > :now",
+            BookingState.PAST, " AND b.end < :now",
+            BookingState.FUTURE, " AND b.start > :now",
+            BookingState.WAITING, " AND b.status = :status",
+            BookingState.REJECTED, " AND b.status = :status");
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long ownerId;
+    private Long bookerId;
+
+    @BeforeAll
+    void seed() {
+        LocalDateTime now = LocalDateTime.now();
+        String run = String.valueOf(System.nanoTime());
+
+        List<Long> bookers = new ArrayList<>();
+        for (int i = 0; i < BOOKERS; i++) {
+            bookers.add(insertUser("booker", "filter-booker-" + i + "-" + run + "@shareit.ru"));
+        }
+        bookerId = bookers.get(0);
+
+        List<Object[]> bookings = new ArrayList<>();
+        for (int o = 0; o < OWNERS; o++) {
+            Long owner = insertUser("owner", "filter-owner-" + o + "-" + run + "@shareit.ru");
+            if (ownerId == null) {
+                ownerId = owner;
+            }
+            for (int i = 0; i < ITEMS_PER_OWNER; i++) {
+                String name = "filter-item-" + o + "-" + i + "-" + run;
+                jdbcTemplate.update("INSERT INTO items (id, name, description, is_available, owner_id) " +
+                        "VALUES (NEXT VALUE FOR items_seq, ?, ?, TRUE, ?)", name, "bench", owner);
+                Long itemId = jdbcTemplate.queryForObject("SELECT id FROM items WHERE name = ?", Long.class, name);
+
+                for (int b = 0; b < BOOKINGS_PER_ITEM; b++) {
+                    LocalDateTime start = now.minusDays(BOOKINGS_PER_ITEM / 2 - b).plusMinutes(i);
+                    BookingStatus status = BookingStatus.values()[b % BookingStatus.values().length];
+                    bookings.add(new Object[]{Timestamp.valueOf(start), Timestamp.valueOf(start.plusDays(2)),
+                            itemId, bookers.get((o + i + b) % BOOKERS), owner, status.name()});
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, owner_id, status, version) " +
+                "VALUES (NEXT VALUE FOR bookings_seq, ?, ?, ?, ?, ?, ?, 0)", bookings);
+    }
+
+    @Test
+    void filterQueryMatchesLegacyQueries() {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> report = new ArrayList<>();
+        for (BookingState state : LEGACY_CONDITIONS.keySet()) {
+            compare("booker", state, now, "b.bookerId", bookerId,
+                    BookingFilter.builder().bookerId(bookerId).state(state).build(), report);
+            compare("owner", state, now, "b.ownerId", ownerId,
+                    BookingFilter.builder().ownerId(ownerId).state(state).build(), report);
+        }
+        System.out.printf("bookings=%d, p50 legacy/filter:%n%s%n",
+                OWNERS * ITEMS_PER_OWNER * BOOKINGS_PER_ITEM, String.join("\n", report));
+    }
+
+    private void compare(String role, BookingState state, LocalDateTime now, String party, Long partyId,
+                         BookingFilter filter, List<String> report) {
+        String jpql = LEGACY_SELECT + "WHERE " + party + " = :partyId" + LEGACY_CONDITIONS.get(state) + LEGACY_ORDER;
+        Supplier<List<BookingResponseDto>> legacy = () -> {
+            TypedQuery<BookingResponseDto> query = entityManager.createQuery(jpql, BookingResponseDto.class)
+                    .setParameter("partyId", partyId)
+                    .setMaxResults(PAGE_SIZE);
+            if (jpql.contains(":now")) {
+                query.setParameter("now", now);
+            }
+            if (state.getStatus() != null) {
+                query.setParameter("status", state.getStatus());
+            }
+            return query.getResultList();
+        };
+        Supplier<List<BookingResponseDto>> filtered = () ->
+                bookingRepository.findResponses(filter, now, null, PageRequest.of(0, PAGE_SIZE));
+
+        List<Long> expected = ids(legacy.get());
+        assertTrue(!expected.isEmpty(), role + " " + state + ": пустая выборка не проверяет план");
+        assertEquals(expected, ids(filtered.get()), role + " " + state);
+
+        long legacyMedian = medianMicros(legacy);
+        long filteredMedian = medianMicros(filtered);
+        report.add(String.format("  %s %s: %dus / %dus", role, state, legacyMedian, filteredMedian));
+        assertTrue(filteredMedian <= legacyMedian * MAX_SLOWDOWN + SLACK_MICROS,
+                role + " " + state + ": " + legacyMedian + "us -> " + filteredMedian + "us");
+    }
+
+    private Long insertUser(String name, String email) {
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (NEXT VALUE FOR users_seq, ?, ?)", name, email);
+        return jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = ?", Long.class, email);
+    }
+
+    private static List<Long> ids(List<BookingResponseDto> bookings) {
+        return bookings.stream().map(BookingResponseDto::getId).collect(Collectors.toList());
+    }
+
+    private long medianMicros(Supplier<? extends List<?>> query) {
+        for (int i = 0; i < ITERATIONS; i++) {
+            query.get();
+        }
+        long[] samples = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long started = System.nanoTime();
+            query.get();
+            samples[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(samples);
+        return samples[ITERATIONS / 2] / 1_000;
+    }
+}
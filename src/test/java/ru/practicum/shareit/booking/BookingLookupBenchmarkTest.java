@@ -0,0 +1,96 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Замер времени поиска последнего/следующего бронирования вещи при росте истории бронирований.
+ * Запускается профилем {@code benchmark}: {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class BookingLookupBenchmarkTest {
+
+    private static final int WARMUP_ITERATIONS = 200;
+    private static final int MEASURED_ITERATIONS = 1_000;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 1_000, 10_000, 100_000})
+    void lastAndNextBookingLookupStaysFlat(int historySize) {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        long itemId = seedItemWithHistory(historySize, now);
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            lookup(itemId, now);
+        }
+
+        long[] samples = new long[MEASURED_ITERATIONS];
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            long started = System.nanoTime();
+            lookup(itemId, now);
+            samples[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(samples);
+
+        System.out.printf("bookings=%d p50=%dus p99=%dus%n", historySize,
+                samples[samples.length / 2] / 1_000, samples[samples.length * 99 / 100] / 1_000);
+
+        Booking last = bookingRepository.findFirstByItemIdAndStatusAndStartBeforeOrderByStartDesc(
+                itemId, BookingStatus.APPROVED, now).orElseThrow();
+        Booking next = bookingRepository.findFirstByItemIdAndStatusAndStartAfterOrderByStartAsc(
+                itemId, BookingStatus.APPROVED, now).orElseThrow();
+
+        assertEquals(now.minusHours(1), last.getStart());
+        assertEquals(now.plusHours(1), next.getStart());
+        assertTrue(last.getStart().isBefore(next.getStart()));
+    }
+
+    private void lookup(long itemId, LocalDateTime now) {
+        bookingRepository.findFirstByItemIdAndStatusAndStartBeforeOrderByStartDesc(itemId, BookingStatus.APPROVED, now);
+        bookingRepository.findFirstByItemIdAndStatusAndStartAfterOrderByStartAsc(itemId, BookingStatus.APPROVED, now);
+    }
+
+    private long seedItemWithHistory(int historySize, LocalDateTime now) {
+        String email = "bench-" + historySize + "-" + System.nanoTime() + "@shareit.ru";
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (NEXT VALUE FOR users_seq, ?, ?)", "bench", email);
+        Long userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = ?", Long.class, email);
+
+        String itemName = "bench-item-" + historySize + "-" + System.nanoTime();
+        jdbcTemplate.update("INSERT INTO items (id, name, description, is_available, owner_id) " +
+                "VALUES (NEXT VALUE FOR items_seq, ?, ?, TRUE, ?)",
+                itemName, "bench", userId);
+        Long itemId = jdbcTemplate.queryForObject("SELECT id FROM items WHERE name = ?", Long.class, itemName);
+
+        // Половина истории в прошлом, половина в будущем; ближайшие к now — ровно за час до и через час после
+        List<Object[]> rows = new ArrayList<>(historySize);
+        for (int i = 0; i < historySize; i++) {
+            long hours = i / 2 + 1L;
+            LocalDateTime start = i % 2 == 0 ? now.minusHours(hours) : now.plusHours(hours);
+            rows.add(new Object[]{Timestamp.valueOf(start), Timestamp.valueOf(start.plusMinutes(30)),
+                    itemId, userId, userId, BookingStatus.APPROVED.name()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, owner_id, status, version) " +
+                "VALUES (NEXT VALUE FOR bookings_seq, ?, ?, ?, ?, ?, ?, 0)", rows);
+        return itemId;
+    }
+}
@@ -0,0 +1,122 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Сравнение запросов владельца до денормализации (соединение с items) и после (фильтр по bookings.owner_id).
+ * Запускается профилем {@code benchmark}: {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OwnerBookingsBenchmarkTest {
+
+    private static final int OWNERS = 100;
+    private static final int ITEMS_PER_OWNER = 20;
+    private static final int BOOKINGS_PER_ITEM = 50;
+    private static final int PAGE_SIZE = 20;
+    private static final int ITERATIONS = 500;
+
+    private static final String JOIN_QUERY = "SELECT b FROM Booking b, Item i WHERE b.itemId = i.id " +
+            "AND i.ownerId = :ownerId AND b.status = :status ORDER BY b.start DESC, b.id DESC";
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long ownerId;
+
+    @BeforeAll
+    void seed() {
+        LocalDateTime now = LocalDateTime.now();
+        String run = String.valueOf(System.nanoTime());
+
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (NEXT VALUE FOR users_seq, ?, ?)", "booker", "booker-" + run + "@shareit.ru");
+        Long bookerId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = ?", Long.class,
+                "booker-" + run + "@shareit.ru");
+
+        List<Object[]> bookings = new ArrayList<>();
+        for (int o = 0; o < OWNERS; o++) {
+            String email = "owner-" + o + "-" + run + "@shareit.ru";
+            jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (NEXT VALUE FOR users_seq, ?, ?)", "owner", email);
+            Long owner = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = ?", Long.class, email);
+            if (ownerId == null) {
+                ownerId = owner;
+            }
+
+            for (int i = 0; i < ITEMS_PER_OWNER; i++) {
+                String name = "item-" + o + "-" + i + "-" + run;
+                jdbcTemplate.update("INSERT INTO items (id, name, description, is_available, owner_id) " +
+                        "VALUES (NEXT VALUE FOR items_seq, ?, ?, TRUE, ?)", name, "bench", owner);
+                Long itemId = jdbcTemplate.queryForObject("SELECT id FROM items WHERE name = ?", Long.class, name);
+
+                for (int b = 0; b < BOOKINGS_PER_ITEM; b++) {
+                    LocalDateTime start = now.minusDays(b).plusMinutes(i);
+                    BookingStatus status = BookingStatus.values()[b % 3];
+                    bookings.add(new Object[]{Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(1)),
+                            itemId, bookerId, owner, status.name()});
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, owner_id, status, version) " +
+                "VALUES (NEXT VALUE FOR bookings_seq, ?, ?, ?, ?, ?, ?, 0)", bookings);
+    }
+
+    @Test
+    void compareJoinAndDenormalizedOwnerQuery() {
+        Supplier<List<Booking>> before = () -> entityManager.createQuery(JOIN_QUERY, Booking.class)
+                .setParameter("ownerId", ownerId)
+                .setParameter("status", BookingStatus.WAITING)
+                .setMaxResults(PAGE_SIZE)
+                .getResultList();
+        BookingFilter filter = BookingFilter.builder().ownerId(ownerId).state(BookingState.WAITING).build();
+        Supplier<List<BookingResponseDto>> after = () -> bookingRepository.findResponses(filter, LocalDateTime.now(),
+                null, PageRequest.of(0, PAGE_SIZE));
+
+        assertEquals(before.get().stream().map(Booking::getId).collect(Collectors.toList()),
+                after.get().stream().map(BookingResponseDto::getId).collect(Collectors.toList()));
+
+        long beforeMedian = medianMicros(before);
+        long afterMedian = medianMicros(after);
+        System.out.printf("bookings=%d owner page: join p50=%dus, owner_id p50=%dus%n",
+                OWNERS * ITEMS_PER_OWNER * BOOKINGS_PER_ITEM, beforeMedian, afterMedian);
+    }
+
+    private long medianMicros(Supplier<? extends List<?>> query) {
+        for (int i = 0; i < ITERATIONS; i++) {
+            query.get();
+        }
+        long[] samples = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long started = System.nanoTime();
+            query.get();
+            samples[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(samples);
+        return samples[ITERATIONS / 2] / 1_000;
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.event;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * В тестовом профиле рассылка выключена, а потребителей в основном коде нет: события не должны копиться в outbox.
+ */
+@SpringBootTest
+class DomainEventPublisherTest {
+
+    @Autowired
+    private DomainEventPublisher publisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void inactiveDispatcherLeavesOutboxEmpty() {
+        Long itemId = -42L;
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> publisher.publish(new ItemUpdated(itemId, 1L)));
+
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM outbox_events WHERE aggregate_id = ?", Integer.class, itemId));
+    }
+}
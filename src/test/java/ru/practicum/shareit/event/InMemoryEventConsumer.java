@@ -0,0 +1,97 @@
+package ru.practicum.shareit.event;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Потребитель для тестов: запоминает доставленные события и по заказу отказывает событиям агрегата
+ * заданное число раз, в том числе изнутри своей транзакции. Подключается в контекст через {@code @Import}.
+ */
+public class InMemoryEventConsumer implements DomainEventConsumer {
+
+    private final List<DomainEvent> received = new CopyOnWriteArrayList<>();
+    private final Map<String, AtomicInteger> failuresLeft = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> failInTransaction = new ConcurrentHashMap<>();
+    private final TransactionTemplate transactionTemplate;
+
+    public InMemoryEventConsumer(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void handle(DomainEvent event) {
+        String aggregate = key(event.aggregateType(), event.aggregateId());
+        attempts.computeIfAbsent(aggregate, k -> new AtomicInteger()).incrementAndGet();
+        AtomicInteger failures = failuresLeft.get(aggregate);
+        if (failures != null && failures.getAndUpdate(left -> Math.max(0, left - 1)) > 0) {
+            if (failInTransaction.containsKey(aggregate)) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    throw new IllegalStateException("Отказ потребителя в транзакции для " + aggregate);
+                });
+            }
+            throw new IllegalStateException("Отказ потребителя для " + aggregate);
+        }
+        received.add(event);
+    }
+
+    public void failTimes(String aggregateType, Long aggregateId, int times) {
+        failuresLeft.put(key(aggregateType, aggregateId), new AtomicInteger(times));
+    }
+
+    /**
+     * Как {@link #failTimes}, но отказ происходит внутри транзакции потребителя.
+     */
+    public void failTimesInTransaction(String aggregateType, Long aggregateId, int times) {
+        failInTransaction.put(key(aggregateType, aggregateId), Boolean.TRUE);
+        failTimes(aggregateType, aggregateId, times);
+    }
+
+    public int attempts(String aggregateType, Long aggregateId) {
+        AtomicInteger count = attempts.get(key(aggregateType, aggregateId));
+        return count == null ? 0 : count.get();
+    }
+
+    public List<DomainEvent> received() {
+        return List.copyOf(received);
+    }
+
+    /**
+     * Доставленные события агрегата в порядке доставки.
+     */
+    public List<DomainEvent> received(String aggregateType, Long aggregateId) {
+        return received.stream()
+                .filter(event -> event.aggregateType().equals(aggregateType) && event.aggregateId().equals(aggregateId))
+                .toList();
+    }
+
+    /**
+     * Ждёт, пока среди доставленных не окажется события, подходящего под условие.
+     */
+    public DomainEvent await(Predicate<DomainEvent> condition, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            for (DomainEvent event : received) {
+                if (condition.test(event)) {
+                    return event;
+                }
+            }
+            Thread.sleep(20);
+        }
+        return fail("Событие не доставлено за " + timeout + ", доставлены: " + received);
+    }
+
+    private static String key(String aggregateType, Long aggregateId) {
+        return aggregateType + ":" + aggregateId;
+    }
+}
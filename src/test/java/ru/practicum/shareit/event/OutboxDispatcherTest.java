@@ -0,0 +1,171 @@
+package ru.practicum.shareit.event;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Рассылка включена только здесь и на отдельной базе: рассыльщики других закэшированных контекстов
+ * забирали бы события этого теста. Контекст закрывается после класса, чтобы остановить поток рассылки.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;LOCK_TIMEOUT=10000",
+        "shareit.outbox.enabled=true",
+        "shareit.outbox.poll-interval=PT0.1S",
+        "shareit.outbox.retry-delay=PT0.05S",
+        "shareit.outbox.max-attempts=5"
+})
+@Import(InMemoryEventConsumer.class)
+@DirtiesContext
+class OutboxDispatcherTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final AtomicLong SYNTHETIC_IDS = new AtomicLong(-1_000_000);
+
+    @Autowired
+    private InMemoryEventConsumer consumer;
+
+    @Autowired
+    private DomainEventPublisher publisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Test
+    void bookingLifecycleEventsArriveInOrder() throws Exception {
+        String run = String.valueOf(System.nanoTime());
+        Long ownerId = userService.createUser(new UserDto(null, "owner", "outbox-owner-" + run + "@shareit.ru")).getId();
+        Long bookerId = userService.createUser(new UserDto(null, "booker", "outbox-booker-" + run + "@shareit.ru")).getId();
+        Long itemId = itemService.createItem(ownerId, ItemDto.builder()
+                .name("палатка")
+                .description("outbox")
+                .available(true)
+                .build()).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Long bookingId = bookingService.createBooking(bookerId,
+                new BookingRequestDto(itemId, start, start.plusDays(2))).getId();
+        bookingService.updateBookingStatus(ownerId, bookingId, true);
+        itemService.updateItem(ownerId, itemId, ItemDto.builder().description("обновлено").build());
+
+        consumer.await(event -> event instanceof BookingApproved approved && approved.bookingId().equals(bookingId),
+                TIMEOUT);
+        consumer.await(event -> event instanceof ItemUpdated updated && updated.itemId().equals(itemId), TIMEOUT);
+
+        List<DomainEvent> bookingEvents = consumer.received("booking", bookingId);
+        assertEquals(2, bookingEvents.size());
+        BookingCreated created = assertInstanceOf(BookingCreated.class, bookingEvents.get(0));
+        assertEquals(new BookingCreated(bookingId, itemId, bookerId, ownerId, start, start.plusDays(2)), created);
+        assertEquals(new BookingApproved(bookingId, itemId, bookerId, ownerId), bookingEvents.get(1));
+    }
+
+    @Test
+    void rolledBackTransactionPublishesNothing() throws Exception {
+        Long rolledBack = SYNTHETIC_IDS.decrementAndGet();
+        Long committed = SYNTHETIC_IDS.decrementAndGet();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.executeWithoutResult(status -> {
+            publisher.publish(new ItemUpdated(rolledBack, 1L));
+            status.setRollbackOnly();
+        });
+        transaction.executeWithoutResult(status -> publisher.publish(new ItemUpdated(committed, 1L)));
+
+        consumer.await(event -> event.aggregateId().equals(committed), TIMEOUT);
+        assertTrue(consumer.received("item", rolledBack).isEmpty());
+    }
+
+    @Test
+    void failedEventHoldsBackLaterEventsOfSameAggregateOnly() throws Exception {
+        Long blockedItem = SYNTHETIC_IDS.decrementAndGet();
+        Long otherItem = SYNTHETIC_IDS.decrementAndGet();
+        consumer.failTimes("item", blockedItem, 2);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> publisher.publishAll(List.of(
+                new ItemUpdated(blockedItem, 1L),
+                new CommentAdded(-1L, blockedItem, 2L),
+                new ItemUpdated(otherItem, 1L))));
+
+        consumer.await(event -> event instanceof CommentAdded added && added.itemId().equals(blockedItem), TIMEOUT);
+
+        assertEquals(List.of(new ItemUpdated(blockedItem, 1L), new CommentAdded(-1L, blockedItem, 2L)),
+                consumer.received("item", blockedItem));
+        assertEquals(4, consumer.attempts("item", blockedItem));
+        List<DomainEvent> all = consumer.received();
+        assertTrue(all.indexOf(new ItemUpdated(otherItem, 1L)) < all.indexOf(new ItemUpdated(blockedItem, 1L)),
+                "события другого агрегата не ждут повторной попытки");
+    }
+
+    @Test
+    void eventIsParkedAfterMaxAttempts() throws Exception {
+        Long poisoned = SYNTHETIC_IDS.decrementAndGet();
+        consumer.failTimes("item", poisoned, Integer.MAX_VALUE);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> publisher.publishAll(List.of(
+                new ItemUpdated(poisoned, 1L),
+                new CommentAdded(-2L, poisoned, 2L))));
+
+        // Шестая попытка по агрегату - уже отзыв: до неё ItemUpdated исчерпал пять попыток и помечен FAILED
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (consumer.attempts("item", poisoned) < 6 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        consumer.failTimes("item", poisoned, 0);
+
+        consumer.await(event -> event instanceof CommentAdded added && added.itemId().equals(poisoned), TIMEOUT);
+        assertFalse(consumer.received("item", poisoned).contains(new ItemUpdated(poisoned, 1L)));
+    }
+
+    /**
+     * Отказ потребителя внутри его транзакции не должен откатывать учёт попыток: иначе событие
+     * никогда не исчерпает max-attempts и будет повторяться бесконечно.
+     */
+    @Test
+    void transactionalConsumerFailureIsCountedTowardsMaxAttempts() throws Exception {
+        Long poisoned = SYNTHETIC_IDS.decrementAndGet();
+        consumer.failTimesInTransaction("item", poisoned, Integer.MAX_VALUE);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> publisher.publish(new ItemUpdated(poisoned, 1L)));
+
+        String sql = "SELECT COUNT(*) FROM outbox_events WHERE aggregate_id = ? AND status = 'FAILED' AND attempts = 5";
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (jdbcTemplate.queryForObject(sql, Integer.class, poisoned) == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(1, jdbcTemplate.queryForObject(sql, Integer.class, poisoned));
+        assertEquals(5, consumer.attempts("item", poisoned));
+    }
+}
@@ -0,0 +1,156 @@
+package ru.practicum.shareit.item;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Импорт большого NDJSON через MockMvc, то есть с open-in-view: EntityManager запроса общий для всех пакетов,
+ * и сохранённые вещи не должны копиться в нём от пакета к пакету.
+ */
+@SpringBootTest(properties = "shareit.items.import.batch-size=500")
+@AutoConfigureMockMvc
+class ItemImportTest {
+
+    private static final int ITEMS = 20_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @SpyBean
+    private ItemSearchEngine itemSearchEngine;
+
+    @Test
+    void largeNdjsonImportKeepsPersistenceContextBounded() throws Exception {
+        Long ownerId = userService.createUser(
+                new UserDto(null, "importer", "importer-" + System.nanoTime() + "@shareit.ru")).getId();
+        AtomicInteger maxManaged = new AtomicInteger();
+        doAnswer(invocation -> {
+            maxManaged.accumulateAndGet(managedEntities(), Math::max);
+            return invocation.callRealMethod();
+        }).when(itemSearchEngine).index(any());
+
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < ITEMS; i++) {
+            body.append("{\"name\":\"import-").append(i)
+                    .append("\",\"description\":\"bulk\",\"available\":true}\n");
+        }
+
+        mockMvc.perform(post("/items/import")
+                        .header("X-Sharer-User-Id", ownerId)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.processed").value(ITEMS))
+                .andExpect(jsonPath("$.imported").value(ITEMS))
+                .andExpect(jsonPath("$.failed").value(0));
+
+        assertEquals(ITEMS, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM items WHERE owner_id = ?", Integer.class, ownerId));
+        assertEquals(0, maxManaged.get(), "сущности прошлых пакетов остались в EntityManager запроса");
+    }
+
+    @Test
+    void singleLineArrayReportsElementIndex() throws Exception {
+        Long ownerId = userService.createUser(
+                new UserDto(null, "array-importer", "array-importer-" + System.nanoTime() + "@shareit.ru")).getId();
+
+        mockMvc.perform(post("/items/import")
+                        .header("X-Sharer-User-Id", ownerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"name\":\"a\",\"description\":\"d\",\"available\":true},"
+                                + "{\"name\":\"\",\"description\":\"d\",\"available\":true},"
+                                + "{\"name\":\"c\",\"description\":\"d\",\"available\":true}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].index").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(1));
+    }
+
+    @Test
+    void unknownRequestIdIsReportedAsLineError() throws Exception {
+        Long ownerId = userService.createUser(
+                new UserDto(null, "request-importer", "request-importer-" + System.nanoTime() + "@shareit.ru")).getId();
+
+        mockMvc.perform(post("/items/import")
+                        .header("X-Sharer-User-Id", ownerId)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"name\":\"a\",\"description\":\"d\",\"available\":true}\n"
+                                + "{\"name\":\"b\",\"description\":\"d\",\"available\":true,\"requestId\":999999}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].index").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(2));
+
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM items WHERE owner_id = ? AND request_id IS NOT NULL", Integer.class, ownerId));
+    }
+
+    @Test
+    void progressImportStreamsProgressAfterEachBatch() throws Exception {
+        Long ownerId = userService.createUser(
+                new UserDto(null, "progress-importer", "progress-importer-" + System.nanoTime() + "@shareit.ru")).getId();
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 1_200; i++) {
+            body.append("{\"name\":\"progress-").append(i)
+                    .append("\",\"description\":\"bulk\",\"available\":true}\n");
+        }
+
+        MvcResult started = mockMvc.perform(post("/items/import")
+                        .param("progress", "true")
+                        .header("X-Sharer-User-Id", ownerId)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String[] lines = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString().split("\n");
+
+        // два полных пакета по 500 и итоговый отчёт
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].contains("\"imported\":500"), lines[0]);
+        assertTrue(lines[1].contains("\"imported\":1000"), lines[1]);
+        assertTrue(lines[2].contains("\"imported\":1200") && lines[2].contains("\"errors\""), lines[2]);
+    }
+
+    private int managedEntities() {
+        return entityManager.unwrap(SessionImplementor.class)
+                .getPersistenceContextInternal()
+                .getNumberOfManagedEntities();
+    }
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Счётчик завершённых бронирований должен совпадать с тем, что дал бы полный пересчёт,
+ * в том числе для бронирования, подтверждённого уже после своего окончания.
+ */
+@SpringBootTest
+class ItemStatsUpdaterTest {
+
+    @Autowired
+    private ItemStatsUpdater itemStatsUpdater;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void lateApprovalOfEndedBookingIsCountedOnce() {
+        String run = String.valueOf(System.nanoTime());
+        Long ownerId = userService.createUser(new UserDto(null, "owner", "stats-owner-" + run + "@shareit.ru")).getId();
+        Long bookerId = userService.createUser(new UserDto(null, "booker", "stats-booker-" + run + "@shareit.ru")).getId();
+        Long itemId = itemService.createItem(ownerId, ItemDto.builder()
+                .name("stats")
+                .description("late approval")
+                .available(true)
+                .build()).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Long bookingId = bookingService.createBooking(bookerId,
+                new BookingRequestDto(itemId, start, start.plusHours(1))).getId();
+
+        // Бронирование закончилось, пока ждало подтверждения, и пересчёт уже прошёл его окончание
+        LocalDateTime ended = LocalDateTime.now().minusHours(1);
+        jdbcTemplate.update("UPDATE bookings SET start_date = ?, end_date = ? WHERE id = ?",
+                Timestamp.valueOf(ended.minusHours(1)), Timestamp.valueOf(ended), bookingId);
+        itemStatsUpdater.countCompletedBookings();
+
+        bookingService.updateBookingStatus(ownerId, bookingId, true);
+        itemStatsUpdater.countCompletedBookings();
+
+        assertEquals(1L, jdbcTemplate.queryForObject(
+                "SELECT completed_bookings FROM item_stats WHERE item_id = ?", Long.class, itemId));
+    }
+}
@@ -0,0 +1,196 @@
+package ru.practicum.shareit.persistence;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Маршрутизация на двух экземплярах H2: основная база заполняется приложением, «реплика» - только тестом,
+ * так что по найденным строкам видно, куда ушло чтение.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;LOCK_TIMEOUT=10000",
+        "shareit.datasource.replicas=" + ReplicaRoutingTest.REPLICA_URL,
+        "shareit.datasource.replica-lag-query=SELECT seconds FROM replica_lag",
+        "shareit.datasource.replica-check-interval=PT1H",
+        "shareit.datasource.read-your-writes-window=1m"
+})
+@AutoConfigureMockMvc
+class ReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1;MODE=PostgreSQL";
+    private static final long REPLICA_ONLY_USER_ID = 1_000_000L;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void createReplica() throws Exception {
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "password");
+             Statement statement = connection.createStatement()) {
+            statement.execute("RUNSCRIPT FROM 'classpath:schema.sql'");
+            statement.execute("CREATE TABLE IF NOT EXISTS replica_lag (seconds INT NOT NULL)");
+            statement.execute("DELETE FROM replica_lag");
+            statement.execute("INSERT INTO replica_lag VALUES (0)");
+            statement.execute("MERGE INTO users (id, name, email) KEY (id) VALUES ("
+                    + REPLICA_ONLY_USER_ID + ", 'replica', 'replica@shareit.ru')");
+        }
+    }
+
+    @AfterEach
+    void resetReplica() throws Exception {
+        RequestContextHolder.resetRequestAttributes();
+        setReplicaLag(0);
+        routingDataSource.checkReplicas();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplicaAndWritesToPrimary() {
+        Long primaryUserId = userService.createUser(new UserDto(null, "primary", "primary-routing@shareit.ru")).getId();
+
+        assertEquals("replica", userService.getUserById(REPLICA_ONLY_USER_ID).getName());
+        assertThrows(NotFoundException.class, () -> userService.getUserById(primaryUserId));
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimary() throws Exception {
+        Long primaryUserId = userService.createUser(new UserDto(null, "primary", "primary-lag@shareit.ru")).getId();
+
+        setReplicaLag(60);
+        routingDataSource.checkReplicas();
+
+        assertEquals("primary", userService.getUserById(primaryUserId).getName());
+    }
+
+    @Test
+    void readsAfterOwnWriteStickToPrimary() {
+        Long ownerId = userService.createUser(new UserDto(null, "owner", "owner-routing@shareit.ru")).getId();
+
+        actAs(ownerId);
+        Long itemId = itemService.createItem(ownerId, ItemDto.builder()
+                .name("дрель")
+                .description("routing")
+                .available(true)
+                .build()).getId();
+        assertEquals("дрель", itemService.getItemById(itemId, ownerId).getName());
+
+        actAs(ownerId + 1);
+        assertThrows(NotFoundException.class, () -> itemService.getItemById(itemId, ownerId + 1));
+    }
+
+    /**
+     * Импорт сначала проверяет владельца в read-only транзакции (он есть только на реплике), потом пишет вещи.
+     * Запись в том же HTTP-запросе должна уйти в основную базу, а не в соединение, взятое для чтения.
+     */
+    @Test
+    void writeAfterReadInSameRequestGoesToPrimary() throws Exception {
+        String name = "routing-import-" + System.nanoTime();
+
+        mockMvc.perform(post("/items/import")
+                        .header(ReplicaRoutingDataSource.USER_HEADER, REPLICA_ONLY_USER_ID)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"name\":\"" + name + "\",\"description\":\"routing\",\"available\":true}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1));
+
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM items WHERE name = ?", Integer.class, name));
+        assertEquals(0, countOnReplica("SELECT COUNT(*) FROM items WHERE name = '" + name + "'"));
+    }
+
+    /**
+     * Изменение сбрасывает кэш, и первое чтение после сброса кладёт в него ответ. Прочитанный с отстающей
+     * реплики, он остался бы в кэше и после того, как реплика догонит запись.
+     */
+    @Test
+    void cachedReadAfterUpdateDoesNotCacheReplicaState() throws Exception {
+        Long ownerId = userService.createUser(new UserDto(null, "owner", "owner-cache@shareit.ru")).getId();
+        actAs(ownerId);
+        Long itemId = itemService.createItem(ownerId, ItemDto.builder()
+                .name("старое")
+                .description("routing")
+                .available(true)
+                .build()).getId();
+        RequestContextHolder.resetRequestAttributes();
+        // Реплика успела получить создание вещи, но не её изменение
+        executeOnReplica("INSERT INTO items (id, name, description, is_available, owner_id) VALUES ("
+                + itemId + ", 'старое', 'routing', TRUE, " + ownerId + ")");
+
+        mockMvc.perform(patch("/items/{itemId}", itemId)
+                        .header(ReplicaRoutingDataSource.USER_HEADER, ownerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"новое\"}"))
+                .andExpect(status().isOk());
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/items/{itemId}", itemId)
+                            .header(ReplicaRoutingDataSource.USER_HEADER, REPLICA_ONLY_USER_ID))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.name").value("новое"));
+        }
+    }
+
+    private static void actAs(Long userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(ReplicaRoutingDataSource.USER_HEADER, userId);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private static int countOnReplica(String sql) throws Exception {
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "password");
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    private static void setReplicaLag(int seconds) throws Exception {
+        executeOnReplica("UPDATE replica_lag SET seconds = " + seconds);
+    }
+
+    private static void executeOnReplica(String sql) throws Exception {
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "password");
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Регрессия по памяти: потоковая выгрузка пользователей не должна держать всю таблицу в куче.
+ * Прирост занятой памяти замеряется после сборки мусора на середине выгрузки.
+ * Запускается профилем {@code benchmark}: {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class UserStreamingMemoryTest {
+
+    private static final int USERS = 200_000;
+    private static final int BATCH_SIZE = 10_000;
+    private static final long MAX_RETAINED_BYTES = 24L * 1024 * 1024;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void streamingAllUsersKeepsHeapFlat() throws Exception {
+        String run = String.valueOf(System.nanoTime());
+        long before = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+        try {
+            List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+            for (int i = 0; i < USERS; i++) {
+                rows.add(new Object[]{"user-" + i, "stream-" + i + "-" + run + "@shareit.ru"});
+                if (rows.size() == BATCH_SIZE) {
+                    jdbcTemplate.batchUpdate(
+                            "INSERT INTO users (id, name, email) VALUES (NEXT VALUE FOR users_seq, ?, ?)", rows);
+                    rows.clear();
+                }
+            }
+            long total = before + USERS;
+
+            long baseline = usedHeapAfterGc();
+            LineCountingOutputStream out = new LineCountingOutputStream(total / 2);
+            userService.streamUsers().writeTo(out);
+
+            long retained = out.sampledHeap - baseline;
+            assertEquals(total, out.lines);
+            assertTrue(retained < MAX_RETAINED_BYTES, "удерживается " + retained / 1024 + "KB");
+        } finally {
+            jdbcTemplate.update("DELETE FROM users WHERE email LIKE ?", "stream-%-" + run + "@shareit.ru");
+        }
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Отбрасывает тело ответа и замеряет занятую память, когда выгружена заданная строка.
+     */
+    private static class LineCountingOutputStream extends OutputStream {
+
+        private final long sampleAtLine;
+        private long lines;
+        private long sampledHeap;
+
+        LineCountingOutputStream(long sampleAtLine) {
+            this.sampleAtLine = sampleAtLine;
+        }
+
+        @Override
+        public void write(int b) {
+            if (b == '\n' && ++lines == sampleAtLine) {
+                sampledHeap = usedHeapAfterGc();
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+        }
+    }
+}
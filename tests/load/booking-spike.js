@@ -0,0 +1,88 @@
+// Нагрузочный сценарий k6: 2000 одновременных клиентов читают и создают бронирования.
+// Сравнение режимов выполнения запросов:
+//   1. mvn spring-boot:run                      (пул платформенных потоков Tomcat)
+//   2. mvn -Pvirtual-threads spring-boot:run    (виртуальные потоки)
+//   k6 run -e BASE_URL=http://localhost:8080 --summary-trend-stats "p(50),p(95),p(99)" tests/load/booking-spike.js
+// и сравнить p(99) метрики http_req_duration в сводке обоих запусков.
+
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const VUS = parseInt(__ENV.VUS || '2000', 10);
+const ITEMS = parseInt(__ENV.ITEMS || '200', 10);
+const BOOKERS = parseInt(__ENV.BOOKERS || '500', 10);
+
+export const options = {
+    scenarios: {
+        spike: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: VUS },
+                { duration: '2m', target: VUS },
+                { duration: '15s', target: 0 },
+            ],
+            gracefulRampDown: '10s',
+        },
+    },
+    summaryTrendStats: ['p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+const JSON_HEADERS = { 'Content-Type': 'application/json' };
+
+function createUser(prefix, i) {
+    const res = http.post(`${BASE_URL}/users`,
+        JSON.stringify({ name: `${prefix}-${i}`, email: `${prefix}-${i}-${Date.now()}@load.shareit` }),
+        { headers: JSON_HEADERS });
+    return res.json('id');
+}
+
+export function setup() {
+    const ownerId = createUser('owner', 0);
+    const itemIds = [];
+    for (let i = 0; i < ITEMS; i++) {
+        const res = http.post(`${BASE_URL}/items`,
+            JSON.stringify({ name: `Дрель ${i}`, description: `Аккумуляторная дрель ${i}`, available: true }),
+            { headers: Object.assign({ 'X-Sharer-User-Id': `${ownerId}` }, JSON_HEADERS) });
+        itemIds.push(res.json('id'));
+    }
+    const bookerIds = [];
+    for (let i = 0; i < BOOKERS; i++) {
+        bookerIds.push(createUser('booker', i));
+    }
+    return { ownerId, itemIds, bookerIds };
+}
+
+function pick(list) {
+    return list[Math.floor(Math.random() * list.length)];
+}
+
+export default function (data) {
+    const bookerId = pick(data.bookerIds);
+    const itemId = pick(data.itemIds);
+    const headers = { 'X-Sharer-User-Id': `${bookerId}` };
+    const roll = Math.random();
+
+    if (roll < 0.4) {
+        check(http.get(`${BASE_URL}/items/${itemId}`, { headers, tags: { name: 'GET /items/{id}' } }),
+            { 'item 200': (r) => r.status === 200 });
+    } else if (roll < 0.7) {
+        check(http.get(`${BASE_URL}/bookings?state=ALL&size=20`, { headers, tags: { name: 'GET /bookings' } }),
+            { 'bookings 200': (r) => r.status === 200 });
+    } else if (roll < 0.85) {
+        check(http.get(`${BASE_URL}/items/search?text=дрель&size=20`, { headers, tags: { name: 'GET /items/search' } }),
+            { 'search 200': (r) => r.status === 200 });
+    } else {
+        const start = new Date(Date.now() + 3600 * 1000 * (1 + Math.floor(Math.random() * 1000)));
+        const end = new Date(start.getTime() + 3600 * 1000);
+        const body = JSON.stringify({
+            itemId,
+            start: start.toISOString().slice(0, 19),
+            end: end.toISOString().slice(0, 19),
+        });
+        check(http.post(`${BASE_URL}/bookings`, body,
+            { headers: Object.assign(headers, JSON_HEADERS), tags: { name: 'POST /bookings' } }),
+            { 'booking created': (r) => r.status === 201 });
+    }
+}